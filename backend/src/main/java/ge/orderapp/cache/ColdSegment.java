@@ -0,0 +1,227 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * One month of archived orders with their items, in a write-once file that is read through a memory
+ * mapping. The records live in the page cache, not on the heap; a read decodes only the orders it returns.
+ * <p>
+ * Layout: {@code MAGIC}, then one record per order (the order's fields followed by its items), sorted by
+ * order date, then the index (date as epoch day, record offset) per order, then the order count and
+ * {@code MAGIC} again. Strings are an int byte length (-1 for null) plus UTF-8. A date range is found by
+ * binary search over the index.
+ */
+final class ColdSegment {
+
+    private static final int MAGIC = 0x4f534731; // "OSG1"
+    private static final int INDEX_ENTRY = 8;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexOffset;
+
+    private ColdSegment(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < 12 || buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not an order segment");
+        }
+        this.count = buffer.getInt(size - 8);
+        this.indexOffset = size - 8 - count * INDEX_ENTRY;
+        if (indexOffset < 4) throw new IOException("Corrupt order segment index");
+    }
+
+    static ColdSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            // The mapping stays valid after the channel is closed
+            return new ColdSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Writes {@code orders} and their items to {@code file}, replacing it atomically. */
+    static void write(Path file, Collection<OrderDto> orders, Map<String, List<OrderItemDto>> itemsByOrder)
+            throws IOException {
+        List<OrderDto> sorted = new ArrayList<>(orders);
+        sorted.sort(Comparator.comparingInt(ColdSegment::dayOf));
+        int[] offsets = new int[sorted.size()];
+
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                for (int i = 0; i < sorted.size(); i++) {
+                    offsets[i] = out.size();
+                    OrderDto o = sorted.get(i);
+                    writeString(out, o.orderId());
+                    writeString(out, o.managerId());
+                    writeString(out, o.managerName());
+                    writeString(out, o.date());
+                    writeString(out, o.status());
+                    out.writeBoolean(o.telegramSent());
+                    writeString(out, o.telegramSentAt());
+                    out.writeInt(o.itemCount());
+                    writeString(out, o.createdAt());
+                    List<OrderItemDto> items = itemsByOrder.getOrDefault(o.orderId(), List.of());
+                    out.writeInt(items.size());
+                    for (OrderItemDto item : items) {
+                        writeString(out, item.itemId());
+                        writeString(out, item.customerName());
+                        writeString(out, item.customerId());
+                        writeString(out, item.comment());
+                        writeString(out, item.createdAt());
+                        writeString(out, item.board());
+                    }
+                }
+                for (int i = 0; i < sorted.size(); i++) {
+                    out.writeInt(dayOf(sorted.get(i)));
+                    out.writeInt(offsets[i]);
+                }
+                out.writeInt(sorted.size());
+                out.writeInt(MAGIC);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Orders dated within [{@code from}, {@code to}] (either may be null for open-ended), oldest first.
+     * Items are decoded only if {@code withItems}.
+     */
+    void forEach(LocalDate from, LocalDate to, boolean withItems, Consumer<OrderDto> action) {
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        for (int i = firstAtOrAfter(fromDay); i < count && day(i) <= toDay; i++) {
+            action.accept(decode(offset(i), withItems));
+        }
+    }
+
+    /** The order with {@code orderId} and its items, or null. */
+    OrderDto find(String orderId) {
+        byte[] wanted = orderId.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < count; i++) {
+            // Compare the raw id bytes before paying for a full decode
+            int pos = offset(i);
+            int length = buffer.getInt(pos);
+            if (length == wanted.length && buffer.slice(pos + 4, length).equals(ByteBuffer.wrap(wanted))) {
+                return decode(pos, true);
+            }
+        }
+        return null;
+    }
+
+    private int firstAtOrAfter(int fromDay) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (day(mid) < fromDay) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int day(int i) {
+        return buffer.getInt(indexOffset + i * INDEX_ENTRY);
+    }
+
+    private int offset(int i) {
+        return buffer.getInt(indexOffset + i * INDEX_ENTRY + 4);
+    }
+
+    private OrderDto decode(int offset, boolean withItems) {
+        Reader r = new Reader(offset);
+        String orderId = r.string();
+        String managerId = r.string();
+        String managerName = r.string();
+        String date = r.string();
+        String status = r.string();
+        boolean telegramSent = r.flag();
+        String telegramSentAt = r.string();
+        int itemCount = r.integer();
+        String createdAt = r.string();
+        List<OrderItemDto> items = null;
+        if (withItems) {
+            int n = r.integer();
+            items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                items.add(new OrderItemDto(r.string(), orderId, r.string(), r.string(), r.string(),
+                        r.string(), r.string()));
+            }
+        }
+        return new OrderDto(orderId, managerId, managerName, date, status, telegramSent, telegramSentAt,
+                itemCount, createdAt, items);
+    }
+
+    /** Sequential reads from an absolute position; the shared buffer's own position is never touched. */
+    private final class Reader {
+        private int pos;
+
+        Reader(int pos) {
+            this.pos = pos;
+        }
+
+        int integer() {
+            int value = buffer.getInt(pos);
+            pos += 4;
+            return value;
+        }
+
+        boolean flag() {
+            return buffer.get(pos++) != 0;
+        }
+
+        String string() {
+            int length = integer();
+            if (length < 0) return null;
+            byte[] bytes = new byte[length];
+            buffer.get(pos, bytes);
+            pos += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Index key: the order date, or its createdAt date when the order date is unreadable. */
+    private static int dayOf(OrderDto order) {
+        try {
+            return (int) LocalDate.parse(order.date()).toEpochDay();
+        } catch (Exception ignored) {
+            // fall through
+        }
+        try {
+            return (int) LocalDate.parse(order.createdAt().substring(0, 10)).toEpochDay();
+        } catch (Exception ignored) {
+            return Integer.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.CustomerDto;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Struct-of-arrays customer storage. Each customer occupies one slot across parallel arrays:
+ * {@code addedBy} values are interned (there are only a handful of distinct users and "rsge_sync"),
+ * timestamps are held as epoch nanos and the frequency score as a primitive int.
+ * {@link CustomerDto}s are only built for rows that are actually returned.
+ * <p>
+ * Scores live in an {@link AtomicIntegerArray}, so concurrent increments only take the shared
+ * read lock (which pins the arrays against a concurrent grow) and never lose an update.
+ * <p>
+ * The ranking (score descending, then name) is maintained rather than recomputed: a score bump
+ * moves its slot forward in place, other writes mark it for a lazy re-sort. Per-manager views with
+ * "my" customers first are derived from it and cached; a score bump patches them with the same step,
+ * anything else rebuilds them on next use.
+ * <p>
+ * Search result rows (one per board) are cached per slot together with the board list and score
+ * they were built from, so paging over unchanged customers reuses the same DTOs.
+ * <p>
+ * Timestamps that do not round-trip through {@link Instant} (blank, legacy formats) are kept
+ * verbatim in a small side map, so reads always return exactly what was stored.
+ */
+final class CustomerTable {
+
+    private static final long NOT_AN_INSTANT = Long.MIN_VALUE;
+
+    /** Outcome of a write. A retired table has been replaced by a reload; retry on the current one. */
+    enum WriteResult { APPLIED, NOT_FOUND, RETIRED }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotById;
+    private final Map<String, Integer> slotByTin;
+    private final Map<String, String> addedByPool = new HashMap<>();
+    private final Map<Integer, String> rawCreatedAt = new HashMap<>();
+    private final Map<Integer, String> rawUpdatedAt = new HashMap<>();
+
+    private String[] ids;
+    private String[] names;
+    private String[] searchKeys;
+    private String[] fullSearchKeys; // only for names with a legal form, otherwise null
+    private String[] tins;
+    private String[] addedBy;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private AtomicIntegerArray scores;
+    private boolean[] active;
+    private AtomicReferenceArray<BoardRows> boardRows;
+    private int size;
+    private boolean retired;
+
+    private final Object rankingLock = new Object();
+    private final Map<String, ManagerView> views = new HashMap<>();
+    private int[] ranked = new int[0];
+    private int[] rankOf = new int[0];
+    private int[] rankScore = new int[0]; // the score each slot was last positioned with
+    private boolean rankingStale = true;
+    private long rankingVersion;
+
+    CustomerTable(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        slotById = new HashMap<>(capacity * 4 / 3 + 1);
+        slotByTin = new HashMap<>(capacity * 4 / 3 + 1);
+        ids = new String[capacity];
+        names = new String[capacity];
+        searchKeys = new String[capacity];
+        fullSearchKeys = new String[capacity];
+        tins = new String[capacity];
+        addedBy = new String[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        scores = new AtomicIntegerArray(capacity);
+        active = new boolean[capacity];
+        boardRows = new AtomicReferenceArray<>(capacity);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    CustomerDto get(String customerId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(customerId);
+            return slot == null ? null : toDto(slot, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    CustomerDto getByTin(String tin) {
+        String key = normalizeTin(tin);
+        if (key.isEmpty()) return null;
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByTin.get(key);
+            return slot == null ? null : toDto(slot, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces a customer. The DTO's {@code board} is not stored; boards live in their own index. */
+    WriteResult put(CustomerDto customer) {
+        String tinKey = normalizeTin(customer.tin());
+        lock.writeLock().lock();
+        try {
+            if (retired) return WriteResult.RETIRED;
+            Integer existing = slotById.get(customer.customerId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                slotByTin.remove(normalizeTin(tins[slot]), slot);
+            } else {
+                slot = size++;
+                ensureCapacity(size);
+                slotById.put(customer.customerId(), slot);
+            }
+            ids[slot] = customer.customerId();
+            names[slot] = customer.name();
+            searchKeys[slot] = SearchKeys.of(customer.name());
+            String fullKey = SearchKeys.withLegalForms(customer.name());
+            fullSearchKeys[slot] = fullKey.equals(searchKeys[slot]) ? null : fullKey;
+            tins[slot] = customer.tin();
+            addedBy[slot] = intern(customer.addedBy());
+            createdAt[slot] = encodeTime(slot, customer.createdAt(), rawCreatedAt);
+            updatedAt[slot] = encodeTime(slot, customer.updatedAt(), rawUpdatedAt);
+            scores.set(slot, customer.frequencyScore());
+            active[slot] = customer.active();
+            boardRows.set(slot, null);
+            if (!tinKey.isEmpty()) slotByTin.put(tinKey, slot);
+            invalidateRanking();
+            return WriteResult.APPLIED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    WriteResult incrementScore(String customerId) {
+        lock.readLock().lock();
+        try {
+            if (retired) return WriteResult.RETIRED;
+            Integer slot = slotById.get(customerId);
+            if (slot == null) return WriteResult.NOT_FOUND;
+            scores.incrementAndGet(slot);
+            synchronized (rankingLock) {
+                // A stale ranking is rebuilt (and every view with it) on the next read anyway
+                if (!rankingStale && bubbleUp(slot)) patchViews(slot);
+            }
+            return WriteResult.APPLIED;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hands over to {@code next} after a reload: copies the live scores of {@code keepScoresOf}
+     * (increments not yet persisted, which the reloaded rows do not include), runs {@code publish}
+     * and retires this table, all under its write lock so no write lands here afterwards.
+     */
+    void handOff(CustomerTable next, Collection<String> keepScoresOf, Runnable publish) {
+        lock.writeLock().lock();
+        try {
+            next.lock.writeLock().lock();
+            try {
+                for (String customerId : keepScoresOf) {
+                    Integer from = slotById.get(customerId);
+                    Integer to = next.slotById.get(customerId);
+                    if (from != null && to != null) next.scores.set(to, scores.get(from));
+                }
+                next.invalidateRanking();
+            } finally {
+                next.lock.writeLock().unlock();
+            }
+            publish.run();
+            retired = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Active customers with the highest frequency scores, highest first. */
+    List<CustomerDto> top(int limit) {
+        lock.readLock().lock();
+        try {
+            int[] order = view("", 0, Set::of).order();
+            List<CustomerDto> result = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = 0; i < order.length && result.size() < limit; i++) {
+                result.add(toDto(order[i], null));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active customers matching {@code query} (see {@link SearchKeys} for name matching, or TIN substring),
+     * "my" customers first, then by score and name. Each customer expands to one row per board
+     * (or one row with a null board); only the rows in {@code [offset, offset + limit)} are returned.
+     * {@code boardsOf} must return an immutable list that is replaced, not mutated, when boards change.
+     * <p>
+     * The order comes from the manager's cached view, so no request sorts; a query only filters it.
+     * {@code myCustomersVersion} must change whenever the manager's "my" set may have changed.
+     */
+    List<CustomerDto> search(String query, String managerId, long myCustomersVersion,
+                             Supplier<Set<String>> myCustomerIds, boolean onlyMine,
+                             int offset, int limit, Function<String, List<String>> boardsOf) {
+        String q = query == null || query.isBlank() ? null : query.trim();
+        String queryKey = q == null ? "" : SearchKeys.of(q);
+        String queryFullKey = q == null ? "" : SearchKeys.withLegalForms(q);
+        lock.readLock().lock();
+        try {
+            ManagerView view = view(managerId == null ? "" : managerId, myCustomersVersion, myCustomerIds);
+            int[] order = view.order();
+            int end = onlyMine ? view.mineCount() : order.length;
+            List<CustomerDto> page = new ArrayList<>(Math.min(limit, end));
+            int row = 0;
+            for (int i = 0; i < end && page.size() < limit; i++) {
+                int slot = order[i];
+                if (q != null && !matches(slot, q, queryKey, queryFullKey)) continue;
+                List<String> boards = boardsOf.apply(ids[slot]);
+                int rows = Math.max(1, boards.size());
+                if (row + rows <= offset) {
+                    row += rows;
+                    continue;
+                }
+                CustomerDto[] expanded = expand(slot, boards);
+                for (CustomerDto customer : expanded) {
+                    if (row++ < offset) continue;
+                    if (page.size() >= limit) break;
+                    page.add(customer);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Ranking (callers hold the table lock; ranking state is guarded by rankingLock) ---
+
+    /**
+     * A manager's ranking: the global ranking stably partitioned into their "my" customers first.
+     * Rebuilt with one linear pass when the global ranking or the manager's "my" set has moved on.
+     */
+    private ManagerView view(String managerKey, long myCustomersVersion, Supplier<Set<String>> myCustomerIds) {
+        synchronized (rankingLock) {
+            if (rankingStale) rebuildRanking();
+            ManagerView cached = views.get(managerKey);
+            if (cached != null && cached.rankingVersion() == rankingVersion
+                    && cached.myCustomersVersion() == myCustomersVersion) {
+                return cached;
+            }
+            Set<String> mine = myCustomerIds.get();
+            int[] order = new int[ranked.length];
+            int mineCount = 0;
+            for (int slot : ranked) {
+                if (mine.contains(ids[slot])) order[mineCount++] = slot;
+            }
+            int next = mineCount;
+            for (int slot : ranked) {
+                if (!mine.contains(ids[slot])) order[next++] = slot;
+            }
+            ManagerView view = new ManagerView(rankingVersion, myCustomersVersion, order, mineCount);
+            views.put(managerKey, view);
+            return view;
+        }
+    }
+
+    private void rebuildRanking() {
+        // Scores keep moving under the read lock; sort on a snapshot so the comparator stays consistent.
+        int[] snapshot = new int[size];
+        int activeCount = 0;
+        for (int slot = 0; slot < size; slot++) {
+            snapshot[slot] = scores.get(slot);
+            if (active[slot]) activeCount++;
+        }
+        Integer[] order = new Integer[activeCount];
+        for (int slot = 0, i = 0; slot < size; slot++) {
+            if (active[slot]) order[i++] = slot;
+        }
+        Arrays.sort(order, (a, b) -> compareRank(a, b, snapshot[a], snapshot[b]));
+
+        ranked = new int[activeCount];
+        rankOf = new int[size];
+        rankScore = snapshot;
+        Arrays.fill(rankOf, -1);
+        for (int i = 0; i < activeCount; i++) {
+            ranked[i] = order[i];
+            rankOf[order[i]] = i;
+        }
+        rankingStale = false;
+        rankingVersion++;
+    }
+
+    /**
+     * Moves a slot whose score just went up towards the front; scores only ever increase in place.
+     * Returns whether the slot moved.
+     * <p>
+     * Neighbours are compared by {@link #rankScore}, not their live score: a concurrent increment may
+     * already have raised a neighbour's score without having repositioned it yet, and comparing against
+     * that would leave this slot behind a neighbour that is itself still too far back.
+     */
+    private boolean bubbleUp(int slot) {
+        if (slot >= rankOf.length || rankOf[slot] < 0) return false;
+        int from = rankOf[slot];
+        int pos = from;
+        int score = scores.get(slot);
+        rankScore[slot] = score;
+        while (pos > 0) {
+            int ahead = ranked[pos - 1];
+            if (compareRank(slot, ahead, score, rankScore[ahead]) >= 0) break;
+            ranked[pos] = ahead;
+            rankOf[ahead] = pos;
+            pos--;
+        }
+        ranked[pos] = slot;
+        rankOf[slot] = pos;
+        return pos != from;
+    }
+
+    /**
+     * Applies {@link #bubbleUp} of {@code slot} to every view built from the current ranking: within its
+     * partition the slot passes the same customers it passed globally. Readers iterate a view's order
+     * without {@code rankingLock}, so a view that changes gets a patched copy rather than an in-place edit.
+     */
+    private void patchViews(int slot) {
+        long next = rankingVersion + 1;
+        int score = rankScore[slot];
+        for (Map.Entry<String, ManagerView> entry : views.entrySet()) {
+            ManagerView view = entry.getValue();
+            if (view.rankingVersion() != rankingVersion) continue; // already stale, rebuilt on use
+            int[] order = view.order();
+            int pos = indexOf(order, slot);
+            if (pos < 0) continue;
+            int start = pos < view.mineCount() ? 0 : view.mineCount();
+            if (pos > start && compareRank(slot, order[pos - 1], score, rankScore[order[pos - 1]]) < 0) {
+                order = order.clone();
+                while (pos > start && compareRank(slot, order[pos - 1], score, rankScore[order[pos - 1]]) < 0) {
+                    order[pos] = order[pos - 1];
+                    pos--;
+                }
+                order[pos] = slot;
+            }
+            entry.setValue(new ManagerView(next, view.myCustomersVersion(), order, view.mineCount()));
+        }
+        rankingVersion = next;
+    }
+
+    private static int indexOf(int[] order, int slot) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == slot) return i;
+        }
+        return -1;
+    }
+
+    /** Score descending, then name, then slot so the order is total. */
+    private int compareRank(int a, int b, int scoreA, int scoreB) {
+        if (scoreA != scoreB) return Integer.compare(scoreB, scoreA);
+        int byName = compareNullSafe(names[a], names[b]);
+        return byName != 0 ? byName : Integer.compare(a, b);
+    }
+
+    private void invalidateRanking() {
+        synchronized (rankingLock) {
+            rankingStale = true;
+            rankingVersion++;
+        }
+    }
+
+    private record ManagerView(long rankingVersion, long myCustomersVersion, int[] order, int mineCount) {}
+
+    /** A slot's expanded search rows, valid while its board list (by identity) and score are unchanged. */
+    private record BoardRows(List<String> boards, int score, CustomerDto[] rows) {}
+
+    // --- Internals (callers hold the lock) ---
+
+    /**
+     * The slot's rows for {@code boards}, from the cache when still current. Runs under the read lock:
+     * a concurrent score bump can at worst cause a rebuild, never a stale hit, because the score is
+     * part of the cache check. Writes to the other fields clear the entry under the write lock.
+     */
+    private CustomerDto[] expand(int slot, List<String> boards) {
+        int score = scores.get(slot);
+        BoardRows cached = boardRows.get(slot);
+        if (cached != null && cached.boards() == boards && cached.score() == score) return cached.rows();
+        CustomerDto[] rows;
+        if (boards.isEmpty()) {
+            rows = new CustomerDto[] {toDto(slot, null, score)};
+        } else {
+            rows = new CustomerDto[boards.size()];
+            for (int i = 0; i < rows.length; i++) rows[i] = toDto(slot, boards.get(i), score);
+        }
+        boardRows.set(slot, new BoardRows(boards, score, rows));
+        return rows;
+    }
+
+    private CustomerDto toDto(int slot, String board) {
+        return toDto(slot, board, scores.get(slot));
+    }
+
+    private CustomerDto toDto(int slot, String board, int score) {
+        return new CustomerDto(ids[slot], names[slot], tins[slot], score, addedBy[slot], active[slot],
+                decodeTime(slot, createdAt[slot], rawCreatedAt), decodeTime(slot, updatedAt[slot], rawUpdatedAt), board);
+    }
+
+    private String intern(String value) {
+        if (value == null) return null;
+        return addedByPool.computeIfAbsent(value, v -> v);
+    }
+
+    private static long encodeTime(int slot, String value, Map<Integer, String> raw) {
+        raw.remove(slot);
+        if (value != null && !value.isEmpty()) {
+            try {
+                Instant instant = Instant.parse(value);
+                if (instant.toString().equals(value)) {
+                    return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+                }
+            } catch (DateTimeParseException | ArithmeticException ignored) {
+                // not an ISO instant; fall through and keep it verbatim
+            }
+        }
+        raw.put(slot, value);
+        return NOT_AN_INSTANT;
+    }
+
+    private static String decodeTime(int slot, long nanos, Map<Integer, String> raw) {
+        if (nanos == NOT_AN_INSTANT) return raw.get(slot);
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L)).toString();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        searchKeys = Arrays.copyOf(searchKeys, capacity);
+        fullSearchKeys = Arrays.copyOf(fullSearchKeys, capacity);
+        tins = Arrays.copyOf(tins, capacity);
+        addedBy = Arrays.copyOf(addedBy, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        AtomicIntegerArray grown = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < scores.length(); i++) grown.set(i, scores.get(i));
+        scores = grown;
+        active = Arrays.copyOf(active, capacity);
+        AtomicReferenceArray<BoardRows> grownRows = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < boardRows.length(); i++) grownRows.set(i, boardRows.get(i));
+        boardRows = grownRows;
+    }
+
+    /**
+     * Name match on the precomputed search key, or TIN substring. A query that does not match the key
+     * is tried against the key with legal forms kept, so "შპ" (a legal form still being typed) and "შპს"
+     * find "შპს თასთი". A query of only punctuation falls back to a plain substring match on the name.
+     */
+    private boolean matches(int slot, String query, String queryKey, String queryFullKey) {
+        if (tins[slot] != null && tins[slot].contains(query)) return true;
+        if (queryFullKey.isEmpty()) return containsIgnoreCase(names[slot], query);
+        if (!queryKey.isEmpty() && searchKeys[slot].contains(queryKey)) return true;
+        String fullKey = fullSearchKeys[slot];
+        return (fullKey != null ? fullKey : searchKeys[slot]).contains(queryFullKey);
+    }
+
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        if (haystack == null) return false;
+        int max = haystack.length() - needle.length();
+        for (int i = 0; i <= max; i++) {
+            if (haystack.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+
+    /** Strip whitespace, hyphens, dots and underscores from a TIN so lookups are format-agnostic. */
+    static String normalizeTin(String tin) {
+        if (tin == null || tin.isBlank()) return "";
+        return tin.trim().replaceAll("[\\s\\-._]+", "");
+    }
+
+    private static int compareNullSafe(String a, String b) {
+        if (a == null && b == null) return 0;
+        if (a == null) return 1;
+        if (b == null) return -1;
+        return a.compareTo(b);
+    }
+}
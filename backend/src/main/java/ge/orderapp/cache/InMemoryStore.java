@@ -3,13 +3,18 @@ package ge.orderapp.cache;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ge.orderapp.dto.response.*;
+import ge.orderapp.repository.Tabs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
@@ -18,48 +23,111 @@ public class InMemoryStore {
     private static final Logger log = LoggerFactory.getLogger(InMemoryStore.class);
     private final ObjectMapper objectMapper;
 
-    // Primary stores keyed by entity ID
-    private final ConcurrentHashMap<String, CustomerDto> customers = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, UserDto> users = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, String> userPasswordHashes = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, OrderDto> orders = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, OrderItemDto> orderItems = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, DraftDto> drafts = new ConcurrentHashMap<>();
-    private final CopyOnWriteArrayList<MyCustomerDto> myCustomers = new CopyOnWriteArrayList<>();
-    private final CopyOnWriteArrayList<SyncStateDto> syncStates = new CopyOnWriteArrayList<>();
+    // Primary stores keyed by entity ID. A reload builds each tab's replacement off to the side and
+    // publishes it with a single volatile write, so readers never see a cleared or half-filled tab.
+    private volatile CustomerTable customers = new CustomerTable(0);
+    private volatile UsersSnapshot users = UsersSnapshot.EMPTY;
+    private final Object usersLock = new Object();
+    // Bumped after every user change; sessions re-resolve their cached UserDto when it moves
+    private final AtomicLong usersVersion = new AtomicLong();
+    // Orders and their items are versioned by commit epoch; see orderView()
+    private final VersionedMap<String, OrderDto> orders = new VersionedMap<>();
+    private final VersionedMap<String, OrderItemDto> orderItems = new VersionedMap<>();
+    // Serializes order writers only; readers pin committedEpoch and never take it
+    private final ReentrantLock orderCommitLock = new ReentrantLock();
+    private volatile long committedEpoch;
+    // Drafts, My_Customers and boards replay writes that race a reload onto the loaded copy; see ReloadableRef
+    private final ReloadableRef<ConcurrentHashMap<String, DraftDto>> drafts = new ReloadableRef<>(new ConcurrentHashMap<>());
+    private final ReloadableRef<CopyOnWriteArrayList<MyCustomerDto>> myCustomers =
+            new ReloadableRef<>(new CopyOnWriteArrayList<>());
+    // Bumped on every My_Customers change; cached per-manager rankings compare against it
+    private final AtomicLong myCustomersVersion = new AtomicLong();
+    private volatile CopyOnWriteArrayList<SyncStateDto> syncStates = new CopyOnWriteArrayList<>();
+
+    // Customers whose frequency score changed since it was last persisted
+    private final Set<String> dirtyFrequencyScores = ConcurrentHashMap.newKeySet();
+
+    // Board assignments and the single-board index derived from them, swapped together on reload
+    private final ReloadableRef<BoardIndex> boardIndex =
+            new ReloadableRef<>(new BoardIndex(new ConcurrentHashMap<>(), new ConcurrentHashMap<>()));
 
-    // Board assignments: customerId -> list of boards
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<String>> customerBoards = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
 
-    // Secondary indexes
-    private final ConcurrentHashMap<String, String> usersByUsername = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, CustomerDto> customersByTin = new ConcurrentHashMap<>();
+    private final List<Consumer<StoreEvent>> subscribers = new CopyOnWriteArrayList<>();
 
-    private volatile boolean ready = false;
+    /**
+     * Users are few and rarely change, so the whole tab is immutable and replaced on every write;
+     * a login's username, id and hash lookups all come from one consistent snapshot.
+     */
+    private record UsersSnapshot(Map<String, UserDto> byId, Map<String, String> idByUsername,
+                                 Map<String, String> passwordHashes) {
+        static final UsersSnapshot EMPTY = new UsersSnapshot(Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * customerId -> normalized, deduplicated boards. Lists are immutable and replaced on change, so readers
+     * never copy them and CustomerTable can cache expanded rows by list identity. {@code singleBoards} is
+     * derived from it: customerId -> its board, for customers with exactly one board.
+     */
+    private record BoardIndex(ConcurrentHashMap<String, List<String>> boards,
+                              ConcurrentHashMap<String, String> singleBoards) {}
 
     public InMemoryStore(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
+    // --- Change events ---
+
+    /**
+     * Registers a receiver for every change made through the write methods below. Receivers run on the
+     * writing thread right after the change, so they should only record or queue work.
+     */
+    public void subscribe(Consumer<StoreEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void publish(StoreEvent event) {
+        for (Consumer<StoreEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Store event subscriber failed on {}: {}", event.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+
     // --- Load from raw Sheets data ---
 
-    public void loadCustomers(List<List<Object>> rows) {
+    /**
+     * Dispatches a tab's rows to its loader; unknown tabs are ignored. Loaders read {@code rows} once, front
+     * to back, so a backend can stream them instead of materializing the tab.
+     */
+    public void loadTab(String tab, Iterable<List<Object>> rows) {
+        switch (tab) {
+            case "Customers" -> loadCustomers(rows);
+            case "Users" -> loadUsers(rows);
+            case "Orders" -> loadOrders(rows);
+            case "Order_Items" -> loadOrderItems(rows);
+            case "Drafts" -> loadDrafts(rows);
+            case "My_Customers" -> loadMyCustomers(rows);
+            case "Sync_State" -> loadSyncStates(rows);
+            case "Customer_Boards" -> loadCustomerBoards(rows);
+            default -> log.warn("Ignoring rows for unknown tab {}", tab);
+        }
+    }
+
+    public void loadCustomers(Iterable<List<Object>> rows) {
         // Build new maps first, then swap — avoids a "clear → empty window" race
         // where a concurrent sync sees all TINs as missing and re-appends everything.
-        Map<String, CustomerDto> incoming = new HashMap<>(rows.size() + 1);
+        Map<String, CustomerDto> incoming = new HashMap<>(sizeHint(rows));
         Map<String, CustomerDto> incomingByTin = new HashMap<>();
         int skippedDuplicates = 0;
 
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            CustomerDto c = new CustomerDto(
-                    str(row, 0), str(row, 1), str(row, 2),
-                    intVal(row, 3), str(row, 4),
-                    "TRUE".equalsIgnoreCase(str(row, 5)),
-                    str(row, 6), str(row, 7), null);
-            if (c.customerId() == null || c.customerId().isBlank()) continue;
-
-            String tin = normalizeTin(c.tin());
+            CustomerDto c = Tabs.CUSTOMERS.decode(row);
+            if (c == null || c.customerId().isBlank()) continue;
+
+            String tin = CustomerTable.normalizeTin(c.tin());
             if (!tin.isEmpty()) {
                 CustomerDto existingForTin = incomingByTin.get(tin);
                 if (existingForTin != null) {
@@ -83,177 +151,145 @@ public class InMemoryStore {
             incoming.put(c.customerId(), c);
         }
 
-        // Merge into live maps without ever leaving them empty.
-        customers.putAll(incoming);
-        customers.keySet().retainAll(incoming.keySet());
-        customersByTin.putAll(incomingByTin);
-        customersByTin.keySet().retainAll(incomingByTin.keySet());
+        // Build the replacement table off to the side and swap it in, so readers never see it half-filled.
+        // Scores bumped since the last persist are carried over; the reloaded rows predate them.
+        CustomerTable table = new CustomerTable(incoming.size());
+        incoming.values().forEach(table::put);
+        customers.handOff(table, dirtyFrequencyScores, () -> customers = table);
 
-        log.info("Loaded {} customers into memory (skippedDuplicates={})", customers.size(), skippedDuplicates);
+        log.info("Loaded {} customers into memory (skippedDuplicates={})", table.size(), skippedDuplicates);
     }
 
-    public void loadUsers(List<List<Object>> rows) {
-        users.clear();
-        usersByUsername.clear();
-        userPasswordHashes.clear();
+    public void loadUsers(Iterable<List<Object>> rows) {
+        Map<String, UserDto> byId = new HashMap<>();
+        Map<String, String> idByUsername = new HashMap<>();
+        Map<String, String> passwordHashes = new HashMap<>();
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            UserDto u = new UserDto(
-                    str(row, 0), str(row, 1), str(row, 3),
-                    str(row, 4), "TRUE".equalsIgnoreCase(str(row, 5)),
-                    str(row, 6));
-            users.put(u.userId(), u);
-            usersByUsername.put(u.username().toLowerCase(), u.userId());
-            userPasswordHashes.put(u.userId(), str(row, 2));
+            Tabs.UserRow decoded = Tabs.USERS.decode(row);
+            if (decoded == null) continue;
+            UserDto u = decoded.user();
+            byId.put(u.userId(), u);
+            idByUsername.put(u.username().toLowerCase(), u.userId());
+            passwordHashes.put(u.userId(), decoded.passwordHash());
+        }
+        synchronized (usersLock) {
+            users = new UsersSnapshot(Map.copyOf(byId), Map.copyOf(idByUsername), Map.copyOf(passwordHashes));
         }
-        log.info("Loaded {} users into memory", users.size());
+        usersVersion.incrementAndGet();
+        log.info("Loaded {} users into memory", byId.size());
     }
 
-    public void loadOrders(List<List<Object>> rows) {
-        orders.clear();
+    public void loadOrders(Iterable<List<Object>> rows) {
+        long sinceEpoch = committedEpoch;
+        Map<String, OrderDto> loaded = new HashMap<>(sizeHint(rows));
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            OrderDto o = new OrderDto(
-                    str(row, 0), str(row, 1), str(row, 2), str(row, 3),
-                    str(row, 4), "TRUE".equalsIgnoreCase(str(row, 5)),
-                    str(row, 6), intVal(row, 7), str(row, 8), null);
-            orders.put(o.orderId(), o);
+            OrderDto o = Tabs.ORDERS.decode(row);
+            if (o != null) loaded.put(o.orderId(), o);
         }
-        log.info("Loaded {} orders into memory", orders.size());
+        orderCommitLock.lock();
+        try {
+            orders.replace(loaded, sinceEpoch);
+        } finally {
+            orderCommitLock.unlock();
+        }
+        log.info("Loaded {} orders into memory", loaded.size());
     }
 
-    public void loadOrderItems(List<List<Object>> rows) {
-        orderItems.clear();
+    public void loadOrderItems(Iterable<List<Object>> rows) {
+        long sinceEpoch = committedEpoch;
+        Map<String, OrderItemDto> loaded = new HashMap<>(sizeHint(rows));
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            String boardVal = str(row, 6);
-            OrderItemDto item = new OrderItemDto(
-                    str(row, 0), str(row, 1), str(row, 2),
-                    str(row, 3), str(row, 4), str(row, 5),
-                    boardVal.isBlank() ? null : boardVal);
-            orderItems.put(item.itemId(), item);
+            OrderItemDto item = Tabs.ORDER_ITEMS.decode(row);
+            if (item != null) loaded.put(item.itemId(), item);
         }
-        log.info("Loaded {} order items into memory", orderItems.size());
+        orderCommitLock.lock();
+        try {
+            orderItems.replace(loaded, sinceEpoch);
+        } finally {
+            orderCommitLock.unlock();
+        }
+        log.info("Loaded {} order items into memory", loaded.size());
     }
 
-    public void loadDrafts(List<List<Object>> rows) {
-        drafts.clear();
+    public void loadDrafts(Iterable<List<Object>> rows) {
+        drafts.beginReload();
+        ConcurrentHashMap<String, DraftDto> loaded = new ConcurrentHashMap<>(sizeHint(rows));
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            String draftId = str(row, 0);
-            String managerId = str(row, 1);
-            String name = str(row, 2);
-            String itemsJson = str(row, 3);
-            String createdAt = str(row, 4);
-            String updatedAt = str(row, 5);
-
-            List<DraftItemDto> items = parseDraftItems(itemsJson);
-            DraftDto d = new DraftDto(draftId, managerId, name, items, createdAt, updatedAt);
-            drafts.put(draftId, d);
+            Tabs.DraftRow r = Tabs.DRAFTS.decode(row);
+            if (r == null) continue;
+            DraftDto d = new DraftDto(r.draftId(), r.managerId(), r.name(), parseDraftItems(r.itemsJson()),
+                    r.createdAt(), r.updatedAt());
+            loaded.put(d.draftId(), d);
         }
-        log.info("Loaded {} drafts into memory", drafts.size());
+        drafts.finishReload(loaded);
+        log.info("Loaded {} drafts into memory", loaded.size());
     }
 
-    public void loadMyCustomers(List<List<Object>> rows) {
-        myCustomers.clear();
+    public void loadMyCustomers(Iterable<List<Object>> rows) {
+        myCustomers.beginReload();
+        List<MyCustomerDto> loaded = new ArrayList<>(sizeHint(rows));
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            MyCustomerDto mc = new MyCustomerDto(str(row, 0), str(row, 1), str(row, 2), str(row, 3));
-            myCustomers.add(mc);
+            MyCustomerDto mc = Tabs.MY_CUSTOMERS.decode(row);
+            if (mc != null) loaded.add(mc);
         }
-        log.info("Loaded {} my_customers entries into memory", myCustomers.size());
+        myCustomers.finishReload(new CopyOnWriteArrayList<>(loaded));
+        myCustomersVersion.incrementAndGet();
+        log.info("Loaded {} my_customers entries into memory", loaded.size());
     }
 
-    public void loadSyncStates(List<List<Object>> rows) {
-        syncStates.clear();
+    public void loadSyncStates(Iterable<List<Object>> rows) {
+        List<SyncStateDto> loaded = new ArrayList<>(sizeHint(rows));
         int skippedInvalid = 0;
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            SyncStateDto s = new SyncStateDto(
-                    str(row, 0), str(row, 1), str(row, 2), str(row, 3),
-                    str(row, 4), intVal(row, 5), intVal(row, 6),
-                    str(row, 7), str(row, 8), str(row, 9));
+            SyncStateDto s = Tabs.SYNC_STATE.decode(row);
+            if (s == null) continue;
             if (!isValidSyncState(s)) {
                 skippedInvalid++;
                 continue;
             }
-            syncStates.add(s);
+            loaded.add(s);
         }
-        log.info("Loaded {} sync states into memory (skippedInvalid={})", syncStates.size(), skippedInvalid);
+        syncStates = new CopyOnWriteArrayList<>(loaded);
+        log.info("Loaded {} sync states into memory (skippedInvalid={})", loaded.size(), skippedInvalid);
     }
 
-    public void loadCustomerBoards(List<List<Object>> rows) {
-        customerBoards.clear();
+    public void loadCustomerBoards(Iterable<List<Object>> rows) {
+        boardIndex.beginReload();
+        Map<String, Set<String>> loaded = new HashMap<>();
         int skippedInvalid = 0;
         for (List<Object> row : rows) {
-            if (row.isEmpty()) continue;
-            String customerId = str(row, 0);
-            String board = normalizeBoardValue(str(row, 1));
+            Tabs.BoardRow r = Tabs.CUSTOMER_BOARDS.decode(row);
+            if (r == null) continue;
+            String customerId = r.customerId();
+            String board = normalizeBoardValue(r.board());
             if (customerId.isBlank() || board == null) {
-                if (!customerId.isBlank() && !str(row, 1).isBlank()) {
+                if (!customerId.isBlank() && !r.board().isBlank()) {
                     skippedInvalid++;
                 }
                 continue;
             }
-            customerBoards.computeIfAbsent(customerId, k -> new CopyOnWriteArrayList<>()).add(board);
+            loaded.computeIfAbsent(customerId, k -> new LinkedHashSet<>()).add(board);
         }
-        log.info("Loaded customer boards for {} customers (skippedInvalid={})", customerBoards.size(), skippedInvalid);
+        BoardIndex index = new BoardIndex(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        loaded.forEach((customerId, boards) -> {
+            List<String> list = List.copyOf(boards);
+            index.boards().put(customerId, list);
+            updateSingleBoard(index, customerId, list);
+        });
+        boardIndex.finishReload(index);
+        log.info("Loaded customer boards for {} customers (skippedInvalid={})", loaded.size(), skippedInvalid);
     }
 
     // --- Customer operations ---
 
     public List<CustomerDto> searchCustomers(String query, String managerId, String tab, int page, int size) {
-        Set<String> myCustomerIds = getMyCustomerIds(managerId);
-
-        List<CustomerDto> filtered = customers.values().stream()
-                .filter(CustomerDto::active)
-                .filter(c -> {
-                    if ("my".equals(tab)) return myCustomerIds.contains(c.customerId());
-                    return true;
-                })
-                .filter(c -> {
-                    if (query == null || query.isBlank()) return true;
-                    String q = query.toLowerCase();
-                    return (c.name() != null && c.name().toLowerCase().contains(q)) ||
-                           (c.tin() != null && c.tin().contains(q));
-                })
-                .sorted((a, b) -> {
-                    boolean aIsMy = myCustomerIds.contains(a.customerId());
-                    boolean bIsMy = myCustomerIds.contains(b.customerId());
-                    if (aIsMy != bIsMy) return aIsMy ? -1 : 1;
-                    if (a.frequencyScore() != b.frequencyScore())
-                        return Integer.compare(b.frequencyScore(), a.frequencyScore());
-                    return compareNullSafe(a.name(), b.name());
-                })
-                .collect(Collectors.toList());
-
-        // Expand each customer by their boards (one row per board; one row with null board if no boards)
-        List<CustomerDto> expanded = new ArrayList<>();
-        for (CustomerDto c : filtered) {
-            List<String> boards = getValidBoards(c.customerId());
-            if (boards.isEmpty()) {
-                expanded.add(new CustomerDto(c.customerId(), c.name(), c.tin(),
-                        c.frequencyScore(), c.addedBy(), c.active(), c.createdAt(), c.updatedAt(), null));
-            } else {
-                for (String b : boards) {
-                    expanded.add(new CustomerDto(c.customerId(), c.name(), c.tin(),
-                            c.frequencyScore(), c.addedBy(), c.active(), c.createdAt(), c.updatedAt(), b));
-                }
-            }
-        }
-
-        int start = page * size;
-        if (start >= expanded.size()) return List.of();
-        int end = Math.min(start + size, expanded.size());
-        return expanded.subList(start, end);
+        // One row per board (or one row with a null board); only the requested page is materialized.
+        return customers.search(query, managerId, myCustomersVersion.get(), () -> getMyCustomerIds(managerId),
+                "my".equals(tab), page * size, size, this::getValidBoards);
     }
 
     public List<CustomerDto> getFrequentCustomers(int limit) {
-        return customers.values().stream()
-                .filter(CustomerDto::active)
-                .sorted((a, b) -> Integer.compare(b.frequencyScore(), a.frequencyScore()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        return customers.top(limit);
     }
 
     public CustomerDto getCustomer(String id) {
@@ -261,17 +297,18 @@ public class InMemoryStore {
     }
 
     public CustomerDto getCustomerByTin(String tin) {
-        String normalized = normalizeTin(tin);
-        if (normalized.isEmpty()) return null;
-        return customersByTin.get(normalized);
+        return customers.getByTin(tin);
     }
 
     public void putCustomer(CustomerDto customer) {
-        customers.put(customer.customerId(), customer);
-        String tin = normalizeTin(customer.tin());
-        if (!tin.isEmpty()) {
-            customersByTin.put(tin, customer);
-        }
+        boolean created;
+        CustomerTable.WriteResult result;
+        do {
+            CustomerTable table = customers;
+            created = table.get(customer.customerId()) == null;
+            result = table.put(customer);
+        } while (result == CustomerTable.WriteResult.RETIRED);
+        publish(new StoreEvent.CustomerSaved(customer, created));
     }
 
     // --- Board operations ---
@@ -281,68 +318,160 @@ public class InMemoryStore {
     }
 
     public void addBoard(String customerId, String board) {
-        customerBoards.computeIfAbsent(customerId, k -> new CopyOnWriteArrayList<>()).add(board);
+        addBoard(customerId, board, "");
+    }
+
+    public void addBoard(String customerId, String board, String addedBy) {
+        String normalized = normalizeBoardValue(board);
+        if (normalized == null) return;
+        if (boardIndex.write(index -> addBoard(index, customerId, normalized))) {
+            publish(new StoreEvent.BoardAdded(customerId, normalized, addedBy, Instant.now().toString()));
+        }
+    }
+
+    private static boolean addBoard(BoardIndex index, String customerId, String normalized) {
+        boolean[] added = new boolean[1];
+        index.boards().compute(customerId, (k, boards) -> {
+            if (boards != null && boards.contains(normalized)) return boards;
+            added[0] = true;
+            List<String> updated = new ArrayList<>(boards == null ? 1 : boards.size() + 1);
+            if (boards != null) updated.addAll(boards);
+            updated.add(normalized);
+            List<String> result = List.copyOf(updated);
+            updateSingleBoard(index, k, result);
+            return result;
+        });
+        return added[0];
     }
 
     public boolean removeBoard(String customerId, String board) {
-        CopyOnWriteArrayList<String> boards = customerBoards.get(customerId);
-        if (boards == null) return false;
-        return boards.remove(board);
+        String normalized = normalizeBoardValue(board);
+        if (normalized == null) return false;
+        boolean removed = boardIndex.write(index -> removeBoard(index, customerId, normalized));
+        if (removed) publish(new StoreEvent.BoardRemoved(customerId, normalized));
+        return removed;
+    }
+
+    private static boolean removeBoard(BoardIndex index, String customerId, String normalized) {
+        boolean[] removed = new boolean[1];
+        index.boards().computeIfPresent(customerId, (k, boards) -> {
+            if (!boards.contains(normalized)) return boards;
+            removed[0] = true;
+            List<String> updated = boards.stream().filter(b -> !b.equals(normalized)).toList();
+            updateSingleBoard(index, k, updated);
+            return updated.isEmpty() ? null : updated;
+        });
+        return removed[0];
     }
 
     // --- User operations ---
 
     public UserDto getUserByUsername(String username) {
         if (username == null) return null;
-        String userId = usersByUsername.get(username.toLowerCase());
+        UsersSnapshot snapshot = users;
+        String userId = snapshot.idByUsername().get(username.toLowerCase());
         if (userId == null) return null;
-        return users.get(userId);
+        return snapshot.byId().get(userId);
     }
 
     public String getUserPasswordHash(String userId) {
-        return userPasswordHashes.get(userId);
+        return users.passwordHashes().get(userId);
     }
 
     public UserDto getUser(String userId) {
-        return users.get(userId);
+        return users.byId().get(userId);
     }
 
     public List<UserDto> getAllUsers() {
-        return new ArrayList<>(users.values());
+        return new ArrayList<>(users.byId().values());
     }
 
     public void putUser(UserDto user, String passwordHash) {
-        users.put(user.userId(), user);
-        usersByUsername.put(user.username().toLowerCase(), user.userId());
-        if (passwordHash != null) {
-            userPasswordHashes.put(user.userId(), passwordHash);
+        boolean created;
+        String currentHash;
+        synchronized (usersLock) {
+            UsersSnapshot current = users;
+            created = !current.byId().containsKey(user.userId());
+            Map<String, UserDto> byId = new HashMap<>(current.byId());
+            Map<String, String> idByUsername = new HashMap<>(current.idByUsername());
+            Map<String, String> passwordHashes = new HashMap<>(current.passwordHashes());
+            byId.put(user.userId(), user);
+            idByUsername.put(user.username().toLowerCase(), user.userId());
+            if (passwordHash != null) {
+                passwordHashes.put(user.userId(), passwordHash);
+            }
+            users = new UsersSnapshot(Map.copyOf(byId), Map.copyOf(idByUsername), Map.copyOf(passwordHashes));
+            currentHash = passwordHashes.get(user.userId());
         }
+        usersVersion.incrementAndGet();
+        publish(new StoreEvent.UserSaved(user, currentHash, created));
+    }
+
+    /** Changes whenever any user is loaded or updated. */
+    public long getUsersVersion() {
+        return usersVersion.get();
     }
 
     // --- Order operations ---
 
+    /**
+     * A consistent point-in-time view of orders and their items: everything committed before the view
+     * was taken, nothing after. Taking one is two volatile reads; hold it for one request or export.
+     */
+    public OrderView orderView() {
+        long epoch = committedEpoch;
+        return new OrderView(epoch, orders.current(), orderItems.current());
+    }
+
+    /** Publishes an order together with its items, so no view sees the order without them. */
+    public void commitOrder(OrderDto order, List<OrderItemDto> items) {
+        orderCommitLock.lock();
+        try {
+            long epoch = committedEpoch + 1;
+            for (OrderItemDto item : items) orderItems.put(item.itemId(), item, epoch);
+            orders.put(order.orderId(), order, epoch);
+            committedEpoch = epoch;
+        } finally {
+            orderCommitLock.unlock();
+        }
+        publish(new StoreEvent.OrderCommitted(order, List.copyOf(items)));
+    }
+
+    /**
+     * Removes orders, and their items, that were moved out of the hot tabs into an archive. Views taken
+     * before still see them. No event is published: nothing changed, the rows only moved.
+     */
+    public void dropOrders(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) return;
+        Set<String> ids = orderIds instanceof Set<String> set ? set : new HashSet<>(orderIds);
+        orderCommitLock.lock();
+        try {
+            long epoch = committedEpoch + 1;
+            List<String> itemIds = new ArrayList<>();
+            orderItems.current().forEach(committedEpoch, item -> {
+                if (ids.contains(item.orderId())) itemIds.add(item.itemId());
+            });
+            itemIds.forEach(itemId -> orderItems.remove(itemId, epoch));
+            ids.forEach(orderId -> orders.remove(orderId, epoch));
+            committedEpoch = epoch;
+        } finally {
+            orderCommitLock.unlock();
+        }
+    }
+
     public void putOrder(OrderDto order) {
-        orders.put(order.orderId(), order);
+        commitOrder(order, List.of());
     }
 
     public OrderDto getOrder(String orderId) {
-        return orders.get(orderId);
+        return orderView().getOrder(orderId);
     }
 
     public List<OrderDto> getOrders(String date, String dateFrom, String dateTo, String managerId, int page, int size) {
-        List<OrderDto> filtered = orders.values().stream()
-                .filter(o -> matchesOrderDate(o, date, dateFrom, dateTo))
-                .filter(o -> managerId == null || managerId.isBlank() || managerId.equals(o.managerId()))
-                .sorted((a, b) -> compareNullSafe(b.createdAt(), a.createdAt()))
-                .collect(Collectors.toList());
-
-        int start = page * size;
-        if (start >= filtered.size()) return List.of();
-        int end = Math.min(start + size, filtered.size());
-        return filtered.subList(start, end);
+        return orderView().getOrders(date, dateFrom, dateTo, managerId, page, size);
     }
 
-    private boolean matchesOrderDate(OrderDto order, String date, String dateFrom, String dateTo) {
+    static boolean matchesOrderDate(OrderDto order, String date, String dateFrom, String dateTo) {
         boolean hasRange = (dateFrom != null && !dateFrom.isBlank()) || (dateTo != null && !dateTo.isBlank());
         if (hasRange) {
             if (dateFrom != null && !dateFrom.isBlank() && order.date().compareTo(dateFrom) < 0) {
@@ -359,51 +488,135 @@ public class InMemoryStore {
     // --- Order Items ---
 
     public void putOrderItem(OrderItemDto item) {
-        orderItems.put(item.itemId(), item);
+        boolean created;
+        orderCommitLock.lock();
+        try {
+            created = orderItems.current().get(item.itemId(), committedEpoch) == null;
+            long epoch = committedEpoch + 1;
+            orderItems.put(item.itemId(), item, epoch);
+            committedEpoch = epoch;
+        } finally {
+            orderCommitLock.unlock();
+        }
+        publish(new StoreEvent.OrderItemSaved(item, created));
     }
 
     public OrderItemDto getOrderItem(String itemId) {
-        return enrichBoardFromCustomer(orderItems.get(itemId));
+        return orderView().getOrderItem(itemId);
     }
 
     public List<OrderItemDto> getOrderItems(String orderId) {
-        return orderItems.values().stream()
-                .filter(i -> orderId.equals(i.orderId()))
-                .map(this::enrichBoardFromCustomer)
-                .collect(Collectors.toList());
+        return orderView().getOrderItems(orderId);
+    }
+
+    public Map<String, List<OrderItemDto>> getOrderItemsByOrder(Collection<String> orderIds) {
+        return orderView().getOrderItemsByOrder(orderIds);
     }
 
     public void updateOrderItemBoard(String itemId, String board) {
-        OrderItemDto existing = orderItems.get(itemId);
-        if (existing == null) return;
-        orderItems.put(itemId, new OrderItemDto(
-                existing.itemId(), existing.orderId(), existing.customerName(),
-                existing.customerId(), existing.comment(), existing.createdAt(), board));
+        OrderItemDto updated;
+        orderCommitLock.lock();
+        try {
+            OrderItemDto existing = orderItems.current().get(itemId, committedEpoch);
+            if (existing == null) return;
+            long epoch = committedEpoch + 1;
+            updated = new OrderItemDto(
+                    existing.itemId(), existing.orderId(), existing.customerName(),
+                    existing.customerId(), existing.comment(), existing.createdAt(), board);
+            orderItems.put(itemId, updated, epoch);
+            committedEpoch = epoch;
+        } finally {
+            orderCommitLock.unlock();
+        }
+        publish(new StoreEvent.OrderItemSaved(updated, false));
+    }
+
+    /**
+     * Orders and items as of one commit epoch. Every read through the same view agrees with every other,
+     * however many orders are committed or tabs reloaded meanwhile. Boards are still derived from the
+     * live customer assignments.
+     */
+    public final class OrderView {
+        private final long epoch;
+        private final VersionedMap.Generation<String, OrderDto> orderGen;
+        private final VersionedMap.Generation<String, OrderItemDto> itemGen;
+
+        private OrderView(long epoch, VersionedMap.Generation<String, OrderDto> orderGen,
+                          VersionedMap.Generation<String, OrderItemDto> itemGen) {
+            this.epoch = epoch;
+            this.orderGen = orderGen;
+            this.itemGen = itemGen;
+        }
+
+        public OrderDto getOrder(String orderId) {
+            return orderGen.get(orderId, epoch);
+        }
+
+        public List<OrderDto> getOrders(String date, String dateFrom, String dateTo, String managerId,
+                                        int page, int size) {
+            List<OrderDto> filtered = new ArrayList<>();
+            orderGen.forEach(epoch, o -> {
+                if (matchesOrderDate(o, date, dateFrom, dateTo)
+                        && (managerId == null || managerId.isBlank() || managerId.equals(o.managerId()))) {
+                    filtered.add(o);
+                }
+            });
+            filtered.sort((a, b) -> compareNullSafe(b.createdAt(), a.createdAt()));
+
+            int start = page * size;
+            if (start >= filtered.size()) return List.of();
+            int end = Math.min(start + size, filtered.size());
+            return filtered.subList(start, end);
+        }
+
+        public OrderItemDto getOrderItem(String itemId) {
+            return enrichBoardFromCustomer(itemGen.get(itemId, epoch));
+        }
+
+        public List<OrderItemDto> getOrderItems(String orderId) {
+            List<OrderItemDto> items = new ArrayList<>();
+            itemGen.forEach(epoch, i -> {
+                if (orderId.equals(i.orderId())) items.add(enrichBoardFromCustomer(i));
+            });
+            return items;
+        }
+
+        /** Board-enriched items of all {@code orderIds}, grouped by order, in one pass over the items. */
+        public Map<String, List<OrderItemDto>> getOrderItemsByOrder(Collection<String> orderIds) {
+            Set<String> wanted = orderIds instanceof Set<String> set ? set : new HashSet<>(orderIds);
+            Map<String, List<OrderItemDto>> byOrder = new HashMap<>();
+            itemGen.forEach(epoch, item -> {
+                if (item.orderId() == null || !wanted.contains(item.orderId())) return;
+                byOrder.computeIfAbsent(item.orderId(), k -> new ArrayList<>()).add(enrichBoardFromCustomer(item));
+            });
+            return byOrder;
+        }
     }
 
     // --- Drafts ---
 
     public void putDraft(DraftDto draft) {
-        drafts.put(draft.draftId(), draft);
+        boolean created = drafts.write(map -> map.put(draft.draftId(), draft)) == null;
+        publish(new StoreEvent.DraftSaved(draft, created));
     }
 
     public DraftDto getDraft(String draftId) {
-        return drafts.get(draftId);
+        return drafts.get().get(draftId);
     }
 
     public void removeDraft(String draftId) {
-        drafts.remove(draftId);
+        if (drafts.write(map -> map.remove(draftId)) != null) publish(new StoreEvent.DraftRemoved(draftId));
     }
 
     public List<DraftDto> getDrafts(String managerId) {
-        return drafts.values().stream()
+        return drafts.get().values().stream()
                 .filter(d -> managerId.equals(d.managerId()))
                 .sorted((a, b) -> compareNullSafe(b.updatedAt(), a.updatedAt()))
                 .collect(Collectors.toList());
     }
 
     public DraftDto getDraftByName(String managerId, String name) {
-        return drafts.values().stream()
+        return drafts.get().values().stream()
                 .filter(d -> managerId.equals(d.managerId()) && name.equalsIgnoreCase(d.name()))
                 .findFirst()
                 .orElse(null);
@@ -413,24 +626,29 @@ public class InMemoryStore {
 
     public Set<String> getMyCustomerIds(String managerId) {
         if (managerId == null) return Set.of();
-        return myCustomers.stream()
+        return myCustomers.get().stream()
                 .filter(mc -> managerId.equals(mc.managerId()))
                 .map(MyCustomerDto::customerId)
                 .collect(Collectors.toSet());
     }
 
     public List<MyCustomerDto> getMyCustomers(String managerId) {
-        return myCustomers.stream()
+        return myCustomers.get().stream()
                 .filter(mc -> managerId.equals(mc.managerId()))
                 .collect(Collectors.toList());
     }
 
     public void addMyCustomer(MyCustomerDto mc) {
-        myCustomers.add(mc);
+        myCustomers.write(list -> list.add(mc));
+        myCustomersVersion.incrementAndGet();
+        publish(new StoreEvent.MyCustomerAdded(mc));
     }
 
     public void removeMyCustomer(String managerId, String customerId) {
-        myCustomers.removeIf(mc -> managerId.equals(mc.managerId()) && customerId.equals(mc.customerId()));
+        boolean removed = myCustomers.write(list -> list.removeIf(
+                mc -> managerId.equals(mc.managerId()) && customerId.equals(mc.customerId())));
+        myCustomersVersion.incrementAndGet();
+        if (removed) publish(new StoreEvent.MyCustomerRemoved(managerId, customerId));
     }
 
     // --- Sync State ---
@@ -454,6 +672,7 @@ public class InMemoryStore {
         syncStates.add(state);
         log.info("Sync state added: syncId={}, status={}, found={}, added={}, error={}",
                 state.syncId(), state.status(), state.customersFound(), state.customersAdded(), truncate(state.errorMessage()));
+        publish(new StoreEvent.SyncStateSaved(state));
     }
 
     public void updateSyncState(SyncStateDto updated) {
@@ -461,6 +680,7 @@ public class InMemoryStore {
         syncStates.add(updated);
         log.info("Sync state updated: syncId={}, status={}, found={}, added={}, error={}",
                 updated.syncId(), updated.status(), updated.customersFound(), updated.customersAdded(), truncate(updated.errorMessage()));
+        publish(new StoreEvent.SyncStateSaved(updated));
     }
 
     public boolean hasSyncHistory() {
@@ -474,14 +694,31 @@ public class InMemoryStore {
     // --- Frequency score ---
 
     public void incrementFrequencyScore(String customerId) {
-        CustomerDto existing = customers.get(customerId);
-        if (existing != null) {
-            CustomerDto updated = new CustomerDto(
-                    existing.customerId(), existing.name(), existing.tin(),
-                    existing.frequencyScore() + 1, existing.addedBy(),
-                    existing.active(), existing.createdAt(), existing.updatedAt(), existing.board());
-            putCustomer(updated);
+        CustomerTable.WriteResult result;
+        while ((result = customers.incrementScore(customerId)) == CustomerTable.WriteResult.RETIRED) {
+            Thread.onSpinWait();
+        }
+        if (result == CustomerTable.WriteResult.APPLIED) {
+            dirtyFrequencyScores.add(customerId);
+        }
+    }
+
+    /**
+     * Removes and returns the customers whose score changed since the last call. Callers that fail
+     * to persist a customer hand it back with {@link #markFrequencyScoreDirty}.
+     */
+    public List<CustomerDto> drainDirtyFrequencyScores() {
+        List<CustomerDto> drained = new ArrayList<>();
+        for (String customerId : dirtyFrequencyScores) {
+            dirtyFrequencyScores.remove(customerId);
+            CustomerDto customer = customers.get(customerId);
+            if (customer != null) drained.add(customer);
         }
+        return drained;
+    }
+
+    public void markFrequencyScoreDirty(String customerId) {
+        dirtyFrequencyScores.add(customerId);
     }
 
     // --- Readiness ---
@@ -501,24 +738,31 @@ public class InMemoryStore {
      * Only auto-fills when the customer has exactly one board (unambiguous). Multiple boards require
      * explicit assignment by the accountant via the inline editor.
      */
+    public OrderItemDto withDerivedBoard(OrderItemDto item) {
+        return enrichBoardFromCustomer(item);
+    }
+
     private OrderItemDto enrichBoardFromCustomer(OrderItemDto item) {
         if (item == null) return null;
         if (item.board() != null) return item;
         if (item.customerId() == null || item.customerId().isBlank()) return item;
-        List<String> boards = getValidBoards(item.customerId());
-        if (boards.size() != 1) return item;
+        String board = boardIndex.get().singleBoards().get(item.customerId());
+        if (board == null) return item;
         return new OrderItemDto(item.itemId(), item.orderId(), item.customerName(),
-                item.customerId(), item.comment(), item.createdAt(), boards.get(0));
+                item.customerId(), item.comment(), item.createdAt(), board);
+    }
+
+    /** Keeps {@code singleBoards} in step with a customer's new board list (called wherever boards change). */
+    private static void updateSingleBoard(BoardIndex index, String customerId, List<String> boards) {
+        if (boards.size() == 1) {
+            index.singleBoards().put(customerId, boards.get(0));
+        } else {
+            index.singleBoards().remove(customerId);
+        }
     }
 
     private List<String> getValidBoards(String customerId) {
-        CopyOnWriteArrayList<String> boards = customerBoards.get(customerId);
-        if (boards == null || boards.isEmpty()) return List.of();
-        return boards.stream()
-                .map(this::normalizeBoardValue)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
+        return boardIndex.get().boards().getOrDefault(customerId, List.of());
     }
 
     private String normalizeBoardValue(String board) {
@@ -535,26 +779,8 @@ public class InMemoryStore {
 
     // --- Helpers ---
 
-    /** Strip whitespace, hyphens, dots and underscores from a TIN so lookups are format-agnostic. */
-    private String normalizeTin(String tin) {
-        if (tin == null || tin.isBlank()) return "";
-        return tin.trim().replaceAll("[\\s\\-._]+", "");
-    }
-
-    private String str(List<Object> row, int index) {
-        if (index >= row.size()) return "";
-        Object val = row.get(index);
-        return val == null ? "" : val.toString().trim();
-    }
-
-    private int intVal(List<Object> row, int index) {
-        String s = str(row, index);
-        if (s.isEmpty()) return 0;
-        try {
-            return (int) Double.parseDouble(s);
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+    private static int sizeHint(Iterable<?> rows) {
+        return rows instanceof Collection<?> c ? c.size() + 1 : 16;
     }
 
     private int compareNullSafe(String a, String b) {
@@ -0,0 +1,304 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+import ge.orderapp.repository.PersistenceBackend;
+import ge.orderapp.repository.Tabs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Orders of closed months. {@link ge.orderapp.scheduling.OrderArchiver} moves them out of the Orders and
+ * Order_Items tabs into one shard pair per month ({@code Orders_2025_03}, {@code Order_Items_2025_03}), so
+ * the store and its startup load only cover the last {@code app.orders.hot-months} months. Reports that
+ * reach further back read the archived months here.
+ * <p>
+ * The first read of a month copies its shard into a {@link ColdSegment} file under
+ * {@code app.orders.cold-dir}; later reads go through that file's memory mapping, so history stays
+ * queryable without holding it on the heap. Segments are never updated: archiving more orders into a
+ * month deletes its segment, and the next read rebuilds it from the shard. Each month has a generation
+ * that {@link #invalidate} bumps; a segment built or opened under an older generation may predate the
+ * archiving, so it is discarded and the read starts over instead of publishing it.
+ * <p>
+ * The archived months are those with an Orders shard. They are listed from the backend once, on first
+ * use, and extended as the archiver adds months; a query only reads the listed months within its dates
+ * (all of them when it has none), so an old lower bound costs nothing for months that were never archived.
+ * Archived orders are read-only.
+ */
+@Component
+public class OrderArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+
+    private final InMemoryStore store;
+
+    @Autowired(required = false)
+    private PersistenceBackend persistence;
+
+    @Value("${app.orders.hot-months:3}")
+    private int hotMonths;
+
+    @Value("${app.orders.cold-dir:./data/cold-orders}")
+    private String coldDir;
+
+    @Value("${app.time-zone:Asia/Tbilisi}")
+    private String appTimeZone;
+
+    private final ConcurrentHashMap<YearMonth, ColdSegment> segments = new ConcurrentHashMap<>();
+    // Invalidations per month; publishing a segment and its file, and invalidating, hold this map's monitor
+    private final Map<YearMonth, Long> generations = new HashMap<>();
+    // Months with an Orders shard; null until listed from the backend
+    private volatile NavigableSet<YearMonth> archived;
+
+    public OrderArchive(InMemoryStore store) {
+        this.store = store;
+    }
+
+    /** The oldest month still kept hot; every month before it is archived. */
+    public YearMonth hotCutoff() {
+        return YearMonth.now(zone()).minusMonths(Math.max(hotMonths, 1) - 1L);
+    }
+
+    /** The month an order is archived under: its createdAt month in the app time zone, else its date's. */
+    public YearMonth monthOf(OrderDto order) {
+        try {
+            return YearMonth.from(Instant.parse(order.createdAt()).atZone(zone()));
+        } catch (Exception ignored) {
+            // fall back to the order date
+        }
+        try {
+            return YearMonth.from(LocalDate.parse(order.date()));
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    /** Whether a query over these dates covers any archived month. */
+    public boolean reaches(String date, String dateFrom, String dateTo) {
+        return !archivedMonths(date, dateFrom, dateTo).isEmpty();
+    }
+
+    /** Archived orders matching the filter, newest first, without items. */
+    public List<OrderDto> getOrders(String date, String dateFrom, String dateTo, String managerId) {
+        return collect(date, dateFrom, dateTo, managerId, false);
+    }
+
+    /** Like {@link #getOrders}, with each order's board-enriched items attached. */
+    public List<OrderDto> getOrdersWithItems(String dateFrom, String dateTo, String managerId) {
+        return collect(null, dateFrom, dateTo, managerId, true);
+    }
+
+    /**
+     * An archived order by id with its items, or null. Searches every archived month, newest first,
+     * building the segments that are not local yet (a fresh node, or a wiped cold dir).
+     */
+    public OrderDto findOrder(String orderId) {
+        for (YearMonth month : archivedMonths().descendingSet()) {
+            ColdSegment segment = segment(month);
+            OrderDto order = segment != null ? segment.find(orderId) : null;
+            if (order != null) return withDerivedBoards(order);
+        }
+        return null;
+    }
+
+    /** Records that orders were archived into {@code month} and drops its segment, which is now incomplete. */
+    public void invalidate(YearMonth month) {
+        NavigableSet<YearMonth> months = archived;
+        if (months != null) months.add(month);
+        synchronized (generations) {
+            generations.merge(month, 1L, Long::sum);
+            segments.remove(month);
+            try {
+                // A mapping still open on the old file stays readable
+                Files.deleteIfExists(segmentFile(month));
+            } catch (IOException e) {
+                log.warn("Failed to delete cold segment of {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    private List<OrderDto> collect(String date, String dateFrom, String dateTo, String managerId,
+                                   boolean withItems) {
+        boolean hasRange = (dateFrom != null && !dateFrom.isBlank()) || (dateTo != null && !dateTo.isBlank());
+        LocalDate from = parseDate(hasRange ? dateFrom : date);
+        LocalDate to = parseDate(hasRange ? dateTo : date);
+        List<OrderDto> matching = new ArrayList<>();
+        for (YearMonth month : archivedMonths(date, dateFrom, dateTo)) {
+            ColdSegment segment = segment(month);
+            if (segment == null) continue;
+            segment.forEach(from, to, withItems, o -> {
+                if (InMemoryStore.matchesOrderDate(o, date, dateFrom, dateTo)
+                        && (managerId == null || managerId.isBlank() || managerId.equals(o.managerId()))) {
+                    matching.add(withItems ? withDerivedBoards(o) : o);
+                }
+            });
+        }
+        matching.sort(Comparator.comparing(OrderDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return matching;
+    }
+
+    private OrderDto withDerivedBoards(OrderDto o) {
+        List<OrderItemDto> items = o.items().stream().map(store::withDerivedBoard).toList();
+        return new OrderDto(o.orderId(), o.managerId(), o.managerName(), o.date(), o.status(),
+                o.telegramSent(), o.telegramSentAt(), o.itemCount(), o.createdAt(), items);
+    }
+
+    /** The archived months a query over these dates covers, oldest first; either bound may be open. */
+    private List<YearMonth> archivedMonths(String date, String dateFrom, String dateTo) {
+        boolean hasRange = (dateFrom != null && !dateFrom.isBlank()) || (dateTo != null && !dateTo.isBlank());
+        YearMonth from = parseMonth(hasRange ? dateFrom : date);
+        YearMonth to = parseMonth(hasRange ? dateTo : date);
+        List<YearMonth> result = new ArrayList<>();
+        for (YearMonth month : archivedMonths()) {
+            if ((from == null || !month.isBefore(from)) && (to == null || !month.isAfter(to))) result.add(month);
+        }
+        return result;
+    }
+
+    /** Every month with an Orders shard; listed from the backend on first use. Empty if that fails. */
+    private NavigableSet<YearMonth> archivedMonths() {
+        NavigableSet<YearMonth> months = archived;
+        if (months != null || persistence == null) return months != null ? months : Collections.emptyNavigableSet();
+        synchronized (this) {
+            if (archived == null) {
+                try {
+                    NavigableSet<YearMonth> listed = new ConcurrentSkipListSet<>();
+                    for (String tab : persistence.listTabs()) {
+                        YearMonth month = Tabs.shardMonth(Tabs.ORDERS, tab);
+                        if (month != null) listed.add(month);
+                    }
+                    archived = listed;
+                    log.info("Order archive holds {} month(s)", listed.size());
+                } catch (RuntimeException e) {
+                    // Not cached: the next query lists again
+                    log.error("Failed to list archived order months: {}", e.getMessage());
+                    return Collections.emptyNavigableSet();
+                }
+            }
+            return archived;
+        }
+    }
+
+    /** The month's segment, built from its shard on first use; null if it cannot be read. */
+    private ColdSegment segment(YearMonth month) {
+        while (true) {
+            ColdSegment segment = segments.get(month);
+            if (segment != null) return segment;
+            long generation = generation(month);
+            Path file = segmentFile(month);
+            try {
+                if (!Files.exists(file) && !build(month, file, generation)) continue;
+                segment = ColdSegment.open(file);
+            } catch (NoSuchFileException e) {
+                continue; // invalidated between the check and the open
+            } catch (IOException e) {
+                log.error("Failed to open cold segment of {}: {}", month, e.getMessage());
+                return null;
+            }
+            synchronized (generations) {
+                // Two reports racing for one month both build it, which is harmless; one mapping is kept
+                if (generation(month) == generation) {
+                    ColdSegment raced = segments.putIfAbsent(month, segment);
+                    return raced != null ? raced : segment;
+                }
+            }
+            // Invalidated while this was opened: the file may have predated the archiving
+        }
+    }
+
+    private long generation(YearMonth month) {
+        synchronized (generations) {
+            return generations.getOrDefault(month, 0L);
+        }
+    }
+
+    /**
+     * Builds the month's segment from its shards into a staging file and moves it to {@code file}, unless
+     * the month was invalidated since {@code generation}: then the shards may have been read before the
+     * archiving, so the staging file is deleted and false returned.
+     */
+    private boolean build(YearMonth month, Path file, long generation) throws IOException {
+        if (persistence == null) throw new IOException("No persistence backend to read the archive from");
+        long start = System.currentTimeMillis();
+        // Shards written before moves skipped existing ids can hold a row twice; keep one per id
+        Map<String, OrderDto> orders = new LinkedHashMap<>();
+        for (List<Object> row : persistence.readTab(Tabs.shard(Tabs.ORDERS, month))) {
+            OrderDto order = Tabs.ORDERS.decode(row);
+            if (order != null && !order.orderId().isEmpty()) orders.put(order.orderId(), order);
+        }
+        Map<String, OrderItemDto> items = new LinkedHashMap<>();
+        for (List<Object> row : persistence.readTab(Tabs.shard(Tabs.ORDER_ITEMS, month))) {
+            OrderItemDto item = Tabs.ORDER_ITEMS.decode(row);
+            if (item != null && !item.itemId().isEmpty()) items.put(item.itemId(), item);
+        }
+        Map<String, List<OrderItemDto>> itemsByOrder = new HashMap<>();
+        for (OrderItemDto item : items.values()) {
+            itemsByOrder.computeIfAbsent(item.orderId(), k -> new ArrayList<>()).add(item);
+        }
+        Files.createDirectories(file.getParent());
+        Path staging = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".building");
+        long bytes;
+        try {
+            ColdSegment.write(staging, orders.values(), itemsByOrder);
+            bytes = Files.size(staging);
+            synchronized (generations) {
+                if (generation(month) != generation) {
+                    log.info("Discarded cold segment of {}: invalidated while it was built", month);
+                    return false;
+                }
+                Files.move(staging, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        log.info("Built cold segment of {}: orders={}, items={}, bytes={} in {}ms",
+                month, orders.size(), items.size(), bytes, System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private Path segmentFile(YearMonth month) {
+        return Path.of(coldDir, "orders-" + month + ".seg");
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) return null;
+        try {
+            return LocalDate.parse(date.trim());
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    private static YearMonth parseMonth(String date) {
+        if (date == null || date.isBlank()) return null;
+        try {
+            return YearMonth.from(LocalDate.parse(date.trim()));
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    private ZoneId zone() {
+        try {
+            return ZoneId.of(appTimeZone);
+        } catch (Exception ignored) {
+            return ZoneId.of("Asia/Tbilisi");
+        }
+    }
+}
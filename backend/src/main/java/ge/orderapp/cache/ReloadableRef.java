@@ -0,0 +1,49 @@
+package ge.orderapp.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds a collection that a reload replaces wholesale. Readers take {@link #get()} without locking.
+ * Writers go through {@link #write}, which applies the write to the current instance and, while a
+ * reload is building its replacement, also records it; {@link #finishReload} replays the recorded
+ * writes onto the loaded instance before swapping it in. Writes and the swap are serialized, so no
+ * write lands on an instance that has already been replaced, and none made during the load is lost
+ * (the loaded rows predate it).
+ * <p>
+ * Reloads of one collection do not overlap: tabs are refreshed one at a time.
+ */
+final class ReloadableRef<T> {
+
+    private volatile T current;
+    private List<Consumer<T>> pending; // writes since beginReload, null when no reload is in progress
+
+    ReloadableRef(T initial) {
+        this.current = initial;
+    }
+
+    T get() {
+        return current;
+    }
+
+    /** Applies {@code write} to the current instance and records it for a reload in progress. */
+    synchronized <R> R write(Function<T, R> write) {
+        R result = write.apply(current);
+        if (pending != null) pending.add(write::apply);
+        return result;
+    }
+
+    /** Starts recording writes; call before reading the rows the replacement is built from. */
+    synchronized void beginReload() {
+        pending = new ArrayList<>();
+    }
+
+    /** Replays the writes recorded since {@link #beginReload} onto {@code loaded} and swaps it in. */
+    synchronized void finishReload(T loaded) {
+        if (pending != null) pending.forEach(write -> write.accept(loaded));
+        pending = null;
+        current = loaded;
+    }
+}
@@ -0,0 +1,97 @@
+package ge.orderapp.cache;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds the normalized key customer names are searched by. Both the stored name and the query go
+ * through the same steps, so "შპს თასთი", "tasti" and "TASTI LLC" all reduce to {@code tasti}:
+ * <ol>
+ *   <li>lower-case and transliterate Georgian to Latin (national romanization, ejective marks dropped,
+ *       so ტ/თ, კ/ქ, პ/ფ, წ/ც and ჭ/ჩ fold together);</li>
+ *   <li>split on anything that is not a letter or digit and drop legal-form tokens (შპს, სს, ი/მ, LLC, ...);</li>
+ *   <li>fold common Latin spelling variants in the remaining tokens (x→kh, c→ts, f→p, w→v, y→i);</li>
+ *   <li>join what is left without separators, so spacing differences do not matter.</li>
+ * </ol>
+ * Only complete legal-form tokens are dropped, so a partly typed one ("შპ") stays in the query key;
+ * {@link #withLegalForms} gives the key with them kept, for matching such a query.
+ */
+final class SearchKeys {
+
+    // Georgian Mkhedruli ა (U+10D0) .. ჰ (U+10F0)
+    private static final char GEORGIAN_FIRST = 'ა';
+    private static final String[] GEORGIAN_TO_LATIN = {
+            "a", "b", "g", "d", "e", "v", "z", "t", "i", "k", "l", "m", "n", "o", "p", "zh",
+            "r", "s", "t", "u", "p", "k", "gh", "q", "sh", "ch", "ts", "dz", "ts", "ch", "kh", "j", "h"
+    };
+
+    // Legal forms after transliteration: შპს, სს, ი/მ, ააიპ, სპს, კს, ...
+    private static final Set<String> LEGAL_FORMS = Set.of(
+            "shps", "ss", "im", "aaip", "sps", "ks", "ltd", "llc", "jsc", "inc", "co"
+    );
+
+    private SearchKeys() {
+    }
+
+    /** Normalized key for {@code text}; empty when nothing but legal forms and punctuation remains. */
+    static String of(String text) {
+        return key(text, true);
+    }
+
+    /** Like {@link #of}, but legal-form tokens are kept: {@code "შპს თასთი"} gives {@code shpstasti}. */
+    static String withLegalForms(String text) {
+        return key(text, false);
+    }
+
+    private static String key(String text, boolean dropLegalForms) {
+        if (text == null || text.isBlank()) return "";
+        String latin = transliterate(text.toLowerCase(Locale.ROOT)).replace("i/m", " im ");
+
+        StringBuilder key = new StringBuilder(latin.length());
+        int tokenStart = -1;
+        for (int i = 0; i <= latin.length(); i++) {
+            boolean wordChar = i < latin.length() && Character.isLetterOrDigit(latin.charAt(i));
+            if (wordChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!wordChar && tokenStart >= 0) {
+                String token = latin.substring(tokenStart, i);
+                if (!dropLegalForms || !LEGAL_FORMS.contains(token)) key.append(foldVariants(token));
+                tokenStart = -1;
+            }
+        }
+        return key.toString();
+    }
+
+    private static String transliterate(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int index = c - GEORGIAN_FIRST;
+            if (index >= 0 && index < GEORGIAN_TO_LATIN.length) {
+                out.append(GEORGIAN_TO_LATIN[index]);
+            } else if (c == '\'' || c == '’' || c == 'ʼ' || c == '`') {
+                // ejective marks in Latin spellings (t', k'); dropped like the Georgian distinction
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String foldVariants(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 4);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char next = i + 1 < text.length() ? text.charAt(i + 1) : 0;
+            switch (c) {
+                case 'x' -> out.append("kh");
+                case 'c' -> out.append(next == 'h' ? "c" : "ts");
+                case 'f' -> out.append('p');
+                case 'w' -> out.append('v');
+                case 'y' -> out.append('i');
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
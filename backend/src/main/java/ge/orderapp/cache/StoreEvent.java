@@ -0,0 +1,38 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.*;
+
+import java.util.List;
+
+/**
+ * Changes made through {@link InMemoryStore}'s write methods, published to its subscribers after the
+ * change is visible. Tab reloads do not publish events: they only mirror what is already stored.
+ * <p>
+ * {@code created} is true when the entity was not in the store before the write.
+ */
+public sealed interface StoreEvent {
+
+    record CustomerSaved(CustomerDto customer, boolean created) implements StoreEvent {}
+
+    record BoardAdded(String customerId, String board, String addedBy, String addedAt) implements StoreEvent {}
+
+    record BoardRemoved(String customerId, String board) implements StoreEvent {}
+
+    /** {@code passwordHash} is the user's current hash, whether or not this write changed it. */
+    record UserSaved(UserDto user, String passwordHash, boolean created) implements StoreEvent {}
+
+    /** An order and the items committed with it (see {@link InMemoryStore#commitOrder}). */
+    record OrderCommitted(OrderDto order, List<OrderItemDto> items) implements StoreEvent {}
+
+    record OrderItemSaved(OrderItemDto item, boolean created) implements StoreEvent {}
+
+    record DraftSaved(DraftDto draft, boolean created) implements StoreEvent {}
+
+    record DraftRemoved(String draftId) implements StoreEvent {}
+
+    record MyCustomerAdded(MyCustomerDto myCustomer) implements StoreEvent {}
+
+    record MyCustomerRemoved(String managerId, String customerId) implements StoreEvent {}
+
+    record SyncStateSaved(SyncStateDto syncState) implements StoreEvent {}
+}
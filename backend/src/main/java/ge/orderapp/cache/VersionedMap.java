@@ -0,0 +1,95 @@
+package ge.orderapp.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Map whose entries carry the epoch they were written in, so a reader pinned to an epoch ignores
+ * anything committed after it. Writers assign epochs and must be serialized by the owner (see
+ * {@link InMemoryStore}); readers never lock.
+ * <p>
+ * Each key keeps its current version plus the one before it. That covers a reader overlapping one
+ * update of the same key; a reader older than both falls back to the oldest kept version rather than
+ * holding every version forever. A removal is a version whose value is null; the key itself goes away
+ * with the next generation.
+ */
+final class VersionedMap<K, V> {
+
+    /**
+     * {@code first} marks the key's original insert, which is invisible to older epochs. A null
+     * {@code value} marks a removal.
+     */
+    private record Version<V>(V value, long epoch, Version<V> older, boolean first) {}
+
+    /**
+     * One set of entries. A reload starts a new generation; views keep the generation they were taken
+     * from, so a reload never changes what an open view sees.
+     */
+    static final class Generation<K, V> {
+        private final ConcurrentHashMap<K, Version<V>> entries;
+
+        private Generation(ConcurrentHashMap<K, Version<V>> entries) {
+            this.entries = entries;
+        }
+
+        V get(K key, long epoch) {
+            Version<V> version = entries.get(key);
+            return version == null ? null : visible(version, epoch);
+        }
+
+        void forEach(long epoch, Consumer<V> action) {
+            for (Version<V> version : entries.values()) {
+                V value = visible(version, epoch);
+                if (value != null) action.accept(value);
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        private static <V> V visible(Version<V> version, long epoch) {
+            Version<V> v = version;
+            while (v.epoch() > epoch) {
+                if (v.older() == null) return v.first() ? null : v.value();
+                v = v.older();
+            }
+            return v.value();
+        }
+    }
+
+    private volatile Generation<K, V> current = new Generation<>(new ConcurrentHashMap<>());
+
+    Generation<K, V> current() {
+        return current;
+    }
+
+    /** Writes {@code value} as of {@code epoch}. Callers hold the owner's commit lock. */
+    void put(K key, V value, long epoch) {
+        current.entries.compute(key, (k, existing) -> existing == null
+                ? new Version<>(value, epoch, null, true)
+                : new Version<>(value, epoch,
+                        new Version<>(existing.value(), existing.epoch(), null, existing.first()), false));
+    }
+
+    /** Removes {@code key} as of {@code epoch}; older views still see it. Callers hold the owner's commit lock. */
+    void remove(K key, long epoch) {
+        current.entries.computeIfPresent(key, (k, existing) -> new Version<>(null, epoch,
+                new Version<>(existing.value(), existing.epoch(), null, existing.first()), false));
+    }
+
+    /**
+     * Publishes a freshly loaded generation. Loaded entries are visible at every epoch; entries the
+     * old generation received after {@code sinceEpoch} (writes that raced the load) are carried over.
+     * Callers hold the owner's commit lock.
+     */
+    void replace(Map<K, V> loaded, long sinceEpoch) {
+        ConcurrentHashMap<K, Version<V>> entries = new ConcurrentHashMap<>(loaded.size() + 1);
+        loaded.forEach((key, value) -> entries.put(key, new Version<>(value, 0, null, false)));
+        current.entries.forEach((key, version) -> {
+            if (version.epoch() > sinceEpoch) entries.put(key, version);
+        });
+        current = new Generation<>(entries);
+    }
+}
@@ -1,6 +1,7 @@
 package ge.orderapp.config;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.SheetsScopes;
@@ -14,6 +15,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.List;
 
 @Configuration
@@ -25,19 +27,39 @@ public class GoogleSheetsConfig {
     @Value("${google.sheets.credentials-path}")
     private String credentialsPath;
 
+    /** Overrides https://sheets.googleapis.com/, e.g. to point at a local fake Sheets server. */
+    @Value("${google.sheets.root-url:}")
+    private String rootUrl;
+
     @Bean
     public Sheets sheetsService() throws Exception {
-        log.info("Initializing Google Sheets API client with credentials from: {}", credentialsPath);
+        Sheets.Builder builder = new Sheets.Builder(
+                GoogleNetHttpTransport.newTrustedTransport(),
+                JacksonFactory.getDefaultInstance(),
+                requestInitializer())
+                .setApplicationName("Order App");
+
+        if (hasRootUrl()) {
+            log.warn("Google Sheets root URL overridden: {}", rootUrl);
+            builder.setRootUrl(rootUrl.endsWith("/") ? rootUrl : rootUrl + "/");
+        }
+        return builder.build();
+    }
 
+    private HttpRequestInitializer requestInitializer() throws IOException {
+        if (hasRootUrl() && (credentialsPath == null || credentialsPath.isBlank())) {
+            log.info("No Google Sheets credentials configured; sending unauthenticated requests to {}", rootUrl);
+            return request -> {};
+        }
+
+        log.info("Initializing Google Sheets API client with credentials from: {}", credentialsPath);
         GoogleCredentials credentials = GoogleCredentials
                 .fromStream(new FileInputStream(credentialsPath))
                 .createScoped(List.of(SheetsScopes.SPREADSHEETS));
+        return new HttpCredentialsAdapter(credentials);
+    }
 
-        return new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JacksonFactory.getDefaultInstance(),
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName("Order App")
-                .build();
+    private boolean hasRootUrl() {
+        return rootUrl != null && !rootUrl.isBlank();
     }
 }
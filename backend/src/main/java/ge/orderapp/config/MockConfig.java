@@ -2,7 +2,7 @@ package ge.orderapp.config;
 
 import ge.orderapp.cache.InMemoryStore;
 import ge.orderapp.dto.response.*;
-import ge.orderapp.repository.SheetsClient;
+import ge.orderapp.repository.PersistenceBackend;
 import ge.orderapp.security.PasswordService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +26,7 @@ public class MockConfig {
     private final PasswordService passwordService;
 
     @Autowired(required = false)
-    private SheetsClient sheetsClient;
+    private PersistenceBackend persistence;
 
     public MockConfig(InMemoryStore store, PasswordService passwordService) {
         this.store = store;
@@ -35,9 +35,9 @@ public class MockConfig {
 
     @EventListener(ApplicationReadyEvent.class)
     public void initMockData() {
-        // If Sheets loaded real users, don't overwrite them with mock data
+        // If the persistence backend loaded real users, don't overwrite them with mock data
         if (!store.getAllUsers().isEmpty()) {
-            log.info("Users already loaded from Sheets, skipping mock data seed");
+            log.info("Users already loaded from persistence backend, skipping mock data seed");
             store.setReady(true);
             return;
         }
@@ -53,21 +53,12 @@ public class MockConfig {
         UserDto admin = new UserDto("u1", "admin", "ადმინი", "ADMIN", true, now);
         UserDto giorgi = new UserDto("u2", "giorgi", "გიორგი", "MANAGER", true, now);
 
+        // Persisted through the store's change events, so they survive periodic refresh and restarts
         store.putUser(admin, adminHash);
         store.putUser(giorgi, managerHash);
 
-        // Persist seed users to Sheets so they survive periodic refresh
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("Users", List.of(
-                    admin.userId(), admin.username(), adminHash,
-                    admin.displayName(), admin.role(), "TRUE", admin.createdAt()));
-            sheetsClient.appendRow("Users", List.of(
-                    giorgi.userId(), giorgi.username(), managerHash,
-                    giorgi.displayName(), giorgi.role(), "TRUE", giorgi.createdAt()));
-        }
-
         // --- Sample Customers (only if no customers from RS.GE sync) ---
-        if (sheetsClient == null) {
+        if (persistence == null) {
             String[][] customerData = {
                     {"c1", "შპს თასთი", "404476988", "15"},
                     {"c2", "შპს ბახუსი", "205197070", "12"},
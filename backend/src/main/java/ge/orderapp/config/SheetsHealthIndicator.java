@@ -1,32 +1,28 @@
 package ge.orderapp.config;
 
-import ge.orderapp.cache.InMemoryStore;
-import ge.orderapp.repository.SheetsClient;
+import ge.orderapp.repository.PersistenceBackend;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
+/**
+ * Reachability of the persistence backend. Part of the overall health only: requests are served from
+ * memory and writes queue up, so an outage must not fail liveness (a restart would not help) or
+ * readiness (the node can still serve).
+ */
 @Component
 public class SheetsHealthIndicator implements HealthIndicator {
 
-    private final InMemoryStore store;
-
     @Autowired(required = false)
-    private SheetsClient sheetsClient;
-
-    public SheetsHealthIndicator(InMemoryStore store) {
-        this.store = store;
-    }
+    private PersistenceBackend persistence;
 
     @Override
     public Health health() {
-        if (!store.isReady()) {
-            return Health.down().withDetail("reason", "Store not ready").build();
-        }
-        if (sheetsClient != null && !sheetsClient.isHealthy()) {
-            return Health.down().withDetail("reason", "Sheets API unreachable").build();
-        }
-        return Health.up().build();
+        if (persistence == null) return Health.up().build();
+        Health.Builder health = persistence.isHealthy()
+                ? Health.up()
+                : Health.down().withDetail("reason", "Persistence backend unreachable");
+        return health.withDetails(persistence.healthDetails()).build();
     }
 }
@@ -0,0 +1,25 @@
+package ge.orderapp.config;
+
+import ge.orderapp.cache.InMemoryStore;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/** Whether the in-memory store has loaded; the node can serve once it has. Part of readiness. */
+@Component
+public class StoreHealthIndicator implements HealthIndicator {
+
+    private final InMemoryStore store;
+
+    public StoreHealthIndicator(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Health health() {
+        if (!store.isReady()) {
+            return Health.down().withDetail("reason", "Store not ready").build();
+        }
+        return Health.up().build();
+    }
+}
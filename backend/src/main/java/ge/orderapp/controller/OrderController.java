@@ -33,12 +33,14 @@ public class OrderController {
 
     @PostMapping
     public ResponseEntity<OrderDto> create(@Valid @RequestBody CreateOrderRequest req,
+                                            @RequestHeader(value = "Idempotency-Key", required = false)
+                                            String idempotencyKey,
                                             HttpServletRequest request) {
         UserDto user = SessionAuthFilter.getCurrentUser(request);
         if (!"MANAGER".equals(user.role())) {
             throw new ForbiddenException("Only managers can create orders");
         }
-        return ResponseEntity.ok(orderService.createOrder(req, user));
+        return ResponseEntity.ok(orderService.createOrder(req, user, idempotencyKey));
     }
 
     @GetMapping
@@ -0,0 +1,144 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads a {@code values.batchGet} response body with a streaming parser and hands each value range's rows
+ * to {@code sink} as a one-pass Iterable, decoded while the body is still being read. Only the current row
+ * is held in memory, instead of every tab's {@code List<List<Object>>} at once.
+ * <p>
+ * Value ranges arrive in request order, so the i-th range belongs to {@code tabs.get(i)}. Cells come out
+ * as the client library would give them: strings, numbers and booleans.
+ */
+final class BatchGetReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private BatchGetReader() {}
+
+    /** Returns the number of value ranges read. */
+    static int read(InputStream body, List<String> tabs, BiConsumer<String, Iterable<List<Object>>> sink)
+            throws IOException {
+        int ranges = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"valueRanges".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String tab = ranges < tabs.size() ? tabs.get(ranges) : null;
+                    readValueRange(parser, tab, sink);
+                    ranges++;
+                }
+            }
+        }
+        return ranges;
+    }
+
+    private static void readValueRange(JsonParser parser, String tab,
+                                       BiConsumer<String, Iterable<List<Object>>> sink) throws IOException {
+        boolean delivered = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"values".equals(field) || value != JsonToken.START_ARRAY || tab == null) {
+                parser.skipChildren();
+                continue;
+            }
+            Rows rows = new Rows(parser);
+            sink.accept(tab, rows);
+            rows.drain();
+            delivered = true;
+        }
+        // An empty range has no "values" field at all
+        if (!delivered && tab != null) sink.accept(tab, List.of());
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) throw new IOException("Unexpected batchGet response: " + actual + " instead of " + expected);
+    }
+
+    /** The rows of one "values" array, parsed on demand. Can be iterated once. */
+    private static final class Rows implements Iterable<List<Object>> {
+        private final JsonParser parser;
+        private boolean started;
+        private boolean done;
+        private List<Object> next;
+
+        Rows(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public Iterator<List<Object>> iterator() {
+            if (started) throw new IllegalStateException("Rows can only be read once");
+            started = true;
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    if (next == null && !done) next = readRow();
+                    return next != null;
+                }
+
+                @Override
+                public List<Object> next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    List<Object> row = next;
+                    next = null;
+                    return row;
+                }
+            };
+        }
+
+        /** Skips whatever the consumer left unread, so the parser ends after the array. */
+        void drain() {
+            while (!done) readRow();
+        }
+
+        private List<Object> readRow() {
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_ARRAY || token == null) {
+                    done = true;
+                    return null;
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    return List.of();
+                }
+                List<Object> row = new ArrayList<>();
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    row.add(switch (token) {
+                        case VALUE_STRING -> parser.getText();
+                        case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+                        case VALUE_TRUE -> Boolean.TRUE;
+                        case VALUE_FALSE -> Boolean.FALSE;
+                        case VALUE_NULL -> "";
+                        default -> {
+                            parser.skipChildren();
+                            yield "";
+                        }
+                    });
+                }
+                return row;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
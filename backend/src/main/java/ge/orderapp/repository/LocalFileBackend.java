@@ -0,0 +1,331 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded, file-backed persistence: one append-only log per tab under {@code app.persistence.local.dir}.
+ * Each line is a JSON record: {@code {"op":"A","row":[...]}} (append),
+ * {@code {"op":"U","index":n,"row":[...]}} (replace row n) or {@code {"op":"D","index":n}} (delete row n,
+ * shifting the rows below up). The log is replayed at startup and periodically compacted to one append
+ * record per live row. Archive shard tabs get their log when first written.
+ * <p>
+ * Used for single-node deployments and for load-testing without network access. Writes are applied
+ * synchronously, so there is nothing to flush.
+ */
+@Component
+@ConditionalOnProperty(name = "app.persistence.backend", havingValue = "local")
+public class LocalFileBackend implements PersistenceBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalFileBackend.class);
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    private final InMemoryStore store;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TabLog> tabs = new ConcurrentHashMap<>();
+    private Path dir;
+
+    @Value("${app.persistence.local.dir:./data/store}")
+    private String dataDir;
+
+    @Value("${app.persistence.local.compact-min-records:1000}")
+    private int compactMinRecords;
+
+    public LocalFileBackend(InMemoryStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            dir = Path.of(dataDir);
+            Files.createDirectories(dir);
+            for (String tab : TAB_NAMES) {
+                tabs.put(tab, new TabLog(dir.resolve(tab + ".log")));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open local store at " + dataDir, e);
+        }
+        loadAllTabs();
+        store.setReady(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (TabLog tabLog : tabs.values()) {
+            tabLog.close();
+        }
+    }
+
+    @Override
+    public void loadAllTabs() {
+        log.info("Loading all tabs from local store {}...", dataDir);
+        long start = System.currentTimeMillis();
+        for (String tab : TAB_NAMES) {
+            store.loadTab(tab, tabLog(tab).snapshot());
+        }
+        log.info("All tabs loaded from local store in {}ms", System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void appendRow(String tab, List<Object> row) {
+        tabLog(tab).append(row);
+    }
+
+    @Override
+    public void updateRow(String tab, int rowIndex, List<Object> row) {
+        tabLog(tab).update(rowIndex, row);
+    }
+
+    @Override
+    public int findRowIndex(String tab, String id) {
+        return tabLog(tab).findRowIndex(id);
+    }
+
+    @Override
+    public List<List<Object>> readTab(String tab) {
+        if (!tabs.containsKey(tab) && !Files.exists(logFile(tab))) return List.of();
+        return tabLog(tab).snapshot();
+    }
+
+    @Override
+    public List<String> listTabs() {
+        Set<String> names = new TreeSet<>(tabs.keySet());
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(dir, "*.log")) {
+            for (Path file : logs) {
+                String name = file.getFileName().toString();
+                names.add(name.substring(0, name.length() - 4));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list tab logs in {}: {}", dataDir, e.getMessage());
+        }
+        return List.copyOf(names);
+    }
+
+    @Override
+    public void moveRows(List<RowMove> moves) {
+        for (RowMove move : moves) {
+            TabLog source = tabLog(move.fromTab());
+            TabLog target = tabLog(move.toTab());
+            Set<String> present = new HashSet<>();
+            for (List<Object> row : target.rowsWithIds(move.ids())) present.add(row.get(0).toString());
+            int copied = 0;
+            for (List<Object> row : source.rowsWithIds(move.ids())) {
+                if (present.add(row.get(0).toString())) {
+                    target.append(row);
+                    copied++;
+                }
+            }
+            log.info("Copied {} rows from {} to {}", copied, move.fromTab(), move.toTab());
+        }
+        for (RowMove move : moves) {
+            tabLog(move.fromTab()).delete(move.ids());
+        }
+    }
+
+    @Override
+    public boolean flushPendingWrites() {
+        return true;
+    }
+
+    @Override
+    public boolean isHealthy() {
+        return tabs.values().stream().allMatch(TabLog::isWritable);
+    }
+
+    // --- Compaction ---
+
+    @Scheduled(fixedDelayString = "${app.persistence.local.compact-interval-seconds:600}000", initialDelay = 60000)
+    public void compact() {
+        for (Map.Entry<String, TabLog> entry : tabs.entrySet()) {
+            try {
+                entry.getValue().compactIfNeeded();
+            } catch (IOException e) {
+                log.error("Failed to compact local store tab {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /** The log of {@code tab}; archive shards are opened (and created) on first use. */
+    private TabLog tabLog(String tab) {
+        TabLog tabLog = tabs.get(tab);
+        if (tabLog != null) return tabLog;
+        if (Tabs.forName(tab) == null) throw new IllegalArgumentException("Unknown tab: " + tab);
+        return tabs.computeIfAbsent(tab, t -> {
+            try {
+                return new TabLog(logFile(t));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open local store tab " + t, e);
+            }
+        });
+    }
+
+    private Path logFile(String tab) {
+        return dir.resolve(tab + ".log");
+    }
+
+    /** In-memory rows of one tab plus the log file they are replayed from. */
+    private class TabLog {
+
+        private final Path file;
+        private final List<List<Object>> rows = new ArrayList<>();
+        private BufferedWriter writer;
+        private int records;
+
+        TabLog(Path file) throws IOException {
+            this.file = file;
+            replay();
+            this.writer = openWriter();
+        }
+
+        synchronized List<List<Object>> snapshot() {
+            return new ArrayList<>(rows);
+        }
+
+        synchronized void append(List<Object> row) {
+            List<Object> copy = new ArrayList<>(row);
+            write(Map.of("op", "A", "row", copy));
+            rows.add(copy);
+        }
+
+        synchronized void update(int rowIndex, List<Object> row) {
+            if (rowIndex < 1 || rowIndex > rows.size()) {
+                log.warn("Ignoring update of missing row {} in {}", rowIndex, file.getFileName());
+                return;
+            }
+            List<Object> copy = new ArrayList<>(row);
+            write(Map.of("op", "U", "index", rowIndex, "row", copy));
+            rows.set(rowIndex - 1, copy);
+        }
+
+        synchronized int findRowIndex(String id) {
+            for (int i = 0; i < rows.size(); i++) {
+                List<Object> row = rows.get(i);
+                if (!row.isEmpty() && row.get(0) != null && id.equals(row.get(0).toString())) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        synchronized List<List<Object>> rowsWithIds(Set<String> ids) {
+            List<List<Object>> matching = new ArrayList<>();
+            for (List<Object> row : rows) {
+                if (hasId(row, ids)) matching.add(row);
+            }
+            return matching;
+        }
+
+        /** Deletes the rows whose column A is in {@code ids}, bottom-up so each logged index stays valid. */
+        synchronized void delete(Set<String> ids) {
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                if (!hasId(rows.get(i), ids)) continue;
+                write(Map.of("op", "D", "index", i + 1));
+                rows.remove(i);
+            }
+        }
+
+        private static boolean hasId(List<Object> row, Set<String> ids) {
+            return !row.isEmpty() && row.get(0) != null && ids.contains(row.get(0).toString());
+        }
+
+        synchronized boolean isWritable() {
+            return writer != null && Files.isWritable(file);
+        }
+
+        synchronized void compactIfNeeded() throws IOException {
+            if (records < compactMinRecords || records <= rows.size() * 2) return;
+            int before = records;
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (List<Object> row : rows) {
+                    out.write(objectMapper.writeValueAsString(Map.of("op", "A", "row", row)));
+                    out.newLine();
+                }
+            }
+            writer.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer = openWriter();
+            records = rows.size();
+            log.info("Compacted local store {}: {} -> {} records", file.getFileName(), before, records);
+        }
+
+        synchronized void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close local store {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void replay() throws IOException {
+            if (!Files.exists(file)) return;
+            int lineNo = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    if (line.isBlank()) continue;
+                    Map<String, Object> record;
+                    try {
+                        record = objectMapper.readValue(line, RECORD_TYPE);
+                    } catch (IOException e) {
+                        // A torn last line after a crash is expected; anything else is worth a look.
+                        log.warn("Skipping unreadable record {}:{}: {}", file.getFileName(), lineNo, e.getMessage());
+                        continue;
+                    }
+                    List<Object> row = new ArrayList<>((List<Object>) record.getOrDefault("row", List.of()));
+                    if ("D".equals(record.get("op"))) {
+                        int index = ((Number) record.get("index")).intValue();
+                        if (index >= 1 && index <= rows.size()) rows.remove(index - 1);
+                    } else if ("U".equals(record.get("op"))) {
+                        int index = ((Number) record.get("index")).intValue();
+                        if (index >= 1 && index <= rows.size()) rows.set(index - 1, row);
+                    } else {
+                        rows.add(row);
+                    }
+                    records++;
+                }
+            }
+        }
+
+        private BufferedWriter openWriter() throws IOException {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        private void write(Map<String, Object> record) {
+            try {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+                writer.flush();
+                records++;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write to local store " + file.getFileName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ge.orderapp.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Durable storage behind {@link ge.orderapp.cache.InMemoryStore}. The store serves every read;
+ * a backend only loads the tabs at startup/refresh and receives the row-level writes services make.
+ * <p>
+ * Rows are positional, one list per row, in the column order of the Sheets tabs.
+ */
+public interface PersistenceBackend {
+
+    List<String> TAB_NAMES = List.of(
+            "Customers", "Users", "Orders", "Order_Items", "Drafts", "My_Customers", "Sync_State", "Customer_Boards"
+    );
+
+    /** Reads every tab and feeds it into the in-memory store. */
+    void loadAllTabs();
+
+    void appendRow(String tab, List<Object> row);
+
+    /** Replaces the row at {@code rowIndex}, as returned by {@link #findRowIndex}. */
+    void updateRow(String tab, int rowIndex, List<Object> row);
+
+    /** 1-based index of the row whose column A equals {@code id}, or -1 if absent. */
+    int findRowIndex(String tab, String id);
+
+    /** Row indexes for several ids at once; ids without a row are left out of the result. */
+    default Map<String, Integer> findRowIndexes(String tab, Collection<String> ids) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (String id : ids) {
+            int rowIndex = findRowIndex(tab, id);
+            if (rowIndex > 0) indexes.put(id, rowIndex);
+        }
+        return indexes;
+    }
+
+    /**
+     * Every row of {@code tab}, read straight from storage; empty if the tab does not exist. For tabs
+     * the store does not hold, such as the order archive shards.
+     */
+    List<List<Object>> readTab(String tab);
+
+    /** Names of every tab in storage, archive shards included. */
+    List<String> listTabs();
+
+    /** The rows of {@code fromTab} whose column A is in {@code ids}, to be moved to {@code toTab}. */
+    record RowMove(String fromTab, String toTab, Set<String> ids) {}
+
+    /**
+     * Moves rows between tabs in two phases: every move's rows are first appended to the end of its
+     * target (created if needed), skipping ids the target already holds, and only then deleted from their
+     * sources. A failure part way leaves copies rather than a loss, and running the same moves again
+     * completes them without duplicating a row. Rows below the deleted ones shift up: row indexes looked
+     * up before the move are stale after it.
+     */
+    void moveRows(List<RowMove> moves);
+
+    /**
+     * Whether a row with column A {@code id} was appended to {@code tab} but may not be in storage yet
+     * (queued, in flight or waiting to be retried). Backends that write synchronously never have one.
+     */
+    default boolean hasPendingAppend(String tab, String id) {
+        return false;
+    }
+
+    /** Forces queued writes out. Returns false if some writes are still pending after the attempt. */
+    boolean flushPendingWrites();
+
+    /** Whether storage is reachable. Called on every health probe, so it should be cheap. */
+    boolean isHealthy();
+
+    /** Extra facts for the health endpoint, e.g. how old the last known outcome is. */
+    default Map<String, Object> healthDetails() {
+        return Map.of();
+    }
+}
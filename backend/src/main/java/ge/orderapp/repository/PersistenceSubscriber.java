@@ -0,0 +1,208 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.cache.StoreEvent;
+import ge.orderapp.dto.response.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns {@link StoreEvent}s into row writes on the persistence backend. Events are collected per row
+ * (tab + id) with the last write winning, so an entity changed several times between flushes costs one
+ * write; a row created and then edited is still a single append. Each flush resolves the rows of all
+ * pending updates with one lookup per tab.
+ * <p>
+ * Removals are not written; the next refresh reloads the tab.
+ * Running syncs are not written either, only their final state.
+ */
+@Component
+public class PersistenceSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceSubscriber.class);
+
+    // Flushes an update waits for a row the backend has no pending append for (e.g. one confirmed between
+    // the lookup and the check). While the backend still reports the append as pending there is no limit.
+    private static final int MAX_DEFERRALS = 5;
+
+    private final InMemoryStore store;
+    private final ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private PersistenceBackend persistence;
+
+    private final Object lock = new Object();
+    // Held for a whole flush, so nothing else shifts rows between an index lookup and its update
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+
+    /** One row to write; {@code append} rows are new, the others replace the row whose column A is {@code id}. */
+    private record PendingWrite(String tab, String id, List<Object> row, boolean append, int deferrals) {
+        String key() {
+            return tab + '\n' + id;
+        }
+    }
+
+    public PersistenceSubscriber(InMemoryStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (persistence != null) store.subscribe(this::onEvent);
+    }
+
+    void onEvent(StoreEvent event) {
+        List<PendingWrite> writes = encode(event);
+        if (writes.isEmpty()) return;
+        synchronized (lock) {
+            for (PendingWrite write : writes) {
+                pending.merge(write.key(), write, (older, newer) -> older.append()
+                        ? new PendingWrite(newer.tab(), newer.id(), newer.row(), true, 0)
+                        : newer);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.persistence.event-flush-ms:200}", initialDelay = 1000)
+    public void flush() {
+        if (persistence == null) return;
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code task} with no flush in progress, after writing out everything pending both here and
+     * in the backend. For work that moves rows, such as archiving: once it starts no update holds a row
+     * index it could shift. Returns false, without running the task, if the backend could not flush.
+     */
+    public boolean runExclusive(Runnable task) {
+        if (persistence == null) return false;
+        flushLock.lock();
+        try {
+            doFlush();
+            if (!persistence.flushPendingWrites()) return false;
+            task.run();
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        List<PendingWrite> writes;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            writes = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+
+        Map<String, Set<String>> updateIds = new HashMap<>();
+        for (PendingWrite write : writes) {
+            if (!write.append()) updateIds.computeIfAbsent(write.tab(), k -> new HashSet<>()).add(write.id());
+        }
+        Map<String, Map<String, Integer>> rowIndexes = new HashMap<>();
+        updateIds.forEach((tab, ids) -> rowIndexes.put(tab, persistence.findRowIndexes(tab, ids)));
+
+        int appended = 0;
+        int updated = 0;
+        for (PendingWrite write : writes) {
+            if (write.append()) {
+                persistence.appendRow(write.tab(), write.row());
+                appended++;
+                continue;
+            }
+            Integer rowIndex = rowIndexes.get(write.tab()).get(write.id());
+            if (rowIndex != null) {
+                persistence.updateRow(write.tab(), rowIndex, write.row());
+                updated++;
+            } else if (persistence.hasPendingAppend(write.tab(), write.id())) {
+                // The append is queued or being retried (a 429 can pause writes for a minute): keep waiting
+                defer(write, write.deferrals());
+            } else if (write.deferrals() < MAX_DEFERRALS) {
+                defer(write, write.deferrals() + 1);
+            } else {
+                log.warn("Dropping update for {} {}: row not found after {} attempts",
+                        write.tab(), write.id(), MAX_DEFERRALS + 1);
+            }
+        }
+        log.debug("Store events flushed: appended={}, updated={}", appended, updated);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /** Retries an update next flush, unless a newer write for the same row has arrived meanwhile. */
+    private void defer(PendingWrite write, int deferrals) {
+        synchronized (lock) {
+            pending.putIfAbsent(write.key(), new PendingWrite(write.tab(), write.id(), write.row(), false, deferrals));
+        }
+    }
+
+    // --- Row encoding, through the tab schemas ---
+
+    private List<PendingWrite> encode(StoreEvent event) {
+        return switch (event) {
+            case StoreEvent.CustomerSaved e -> List.of(write(Tabs.CUSTOMERS, e.customer().customerId(),
+                    e.customer(), e.created()));
+            case StoreEvent.UserSaved e -> List.of(write(Tabs.USERS, e.user().userId(),
+                    new Tabs.UserRow(e.user(), e.passwordHash()), e.created()));
+            case StoreEvent.OrderCommitted e -> {
+                List<PendingWrite> writes = new ArrayList<>(e.items().size() + 1);
+                for (OrderItemDto item : e.items()) {
+                    writes.add(write(Tabs.ORDER_ITEMS, item.itemId(), item, true));
+                }
+                writes.add(write(Tabs.ORDERS, e.order().orderId(), e.order(), true));
+                yield writes;
+            }
+            case StoreEvent.OrderItemSaved e -> List.of(write(Tabs.ORDER_ITEMS, e.item().itemId(),
+                    e.item(), e.created()));
+            case StoreEvent.DraftSaved e -> List.of(write(Tabs.DRAFTS, e.draft().draftId(),
+                    draftRow(e.draft()), e.created()));
+            case StoreEvent.BoardAdded e -> List.of(write(Tabs.CUSTOMER_BOARDS, e.customerId() + '\n' + e.board(),
+                    new Tabs.BoardRow(e.customerId(), e.board(), e.addedAt(), e.addedBy()), true));
+            case StoreEvent.MyCustomerAdded e -> List.of(write(Tabs.MY_CUSTOMERS,
+                    e.myCustomer().managerId() + '\n' + e.myCustomer().customerId(), e.myCustomer(), true));
+            case StoreEvent.SyncStateSaved e -> "RUNNING".equalsIgnoreCase(e.syncState().status())
+                    ? List.of()
+                    : List.of(write(Tabs.SYNC_STATE, e.syncState().syncId(), e.syncState(), true));
+            case StoreEvent.BoardRemoved e -> List.of();
+            case StoreEvent.DraftRemoved e -> List.of();
+            case StoreEvent.MyCustomerRemoved e -> List.of();
+        };
+    }
+
+    private static <T> PendingWrite write(TabSchema<T> schema, String id, T entity, boolean append) {
+        return new PendingWrite(schema.tab(), id, schema.encode(entity), append, 0);
+    }
+
+    private Tabs.DraftRow draftRow(DraftDto d) {
+        return new Tabs.DraftRow(d.draftId(), d.managerId(), d.name(), serializeItems(d.items()),
+                d.createdAt(), d.updatedAt());
+    }
+
+    private String serializeItems(List<DraftItemDto> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize draft items", e);
+            return "[]";
+        }
+    }
+}
@@ -1,29 +1,40 @@
 package ge.orderapp.repository;
 
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpResponse;
 import com.google.api.services.sheets.v4.Sheets;
 import com.google.api.services.sheets.v4.model.*;
 import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.exception.ExternalServiceException;
+import ge.orderapp.repository.SheetsRequestScheduler.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Component
-@ConditionalOnProperty(name = "google.sheets.enabled", havingValue = "true")
-public class SheetsClient {
+@ConditionalOnExpression("${google.sheets.enabled:false} and '${app.persistence.backend:sheets}' == 'sheets'")
+public class SheetsClient implements PersistenceBackend {
 
     private static final Logger log = LoggerFactory.getLogger(SheetsClient.class);
 
-    private static final String[] TAB_NAMES = {
-            "Customers", "Users", "Orders", "Order_Items", "Drafts", "My_Customers", "Sync_State", "Customer_Boards"
-    };
+    // A health probe that cannot get a quota token this quickly reports the last result instead
+    private static final long HEALTH_MAX_WAIT_MS = 2000;
 
     private final Sheets sheetsService;
     private final InMemoryStore store;
@@ -31,9 +42,47 @@ public class SheetsClient {
     @Value("${google.sheets.spreadsheet-id}")
     private String spreadsheetId;
 
+    @Value("${app.flush-coalesce-ms:250}")
+    private long flushCoalesceMs;
+
+    @Value("${app.flush-max-batch:200}")
+    private int flushMaxBatch;
+
+    @Value("${app.flush-retry-seconds:5}")
+    private long flushRetrySeconds;
+
+    @Value("${google.sheets.quota.requests-per-minute:60}")
+    private int quotaRequestsPerMinute;
+
+    @Value("${google.sheets.quota.burst:20}")
+    private int quotaBurst;
+
+    @Value("${google.sheets.quota.backoff-initial-ms:1000}")
+    private long quotaBackoffInitialMs;
+
+    @Value("${google.sheets.quota.backoff-max-ms:60000}")
+    private long quotaBackoffMaxMs;
+
+    @Value("${google.sheets.health.max-age-seconds:60}")
+    private long healthMaxAgeSeconds;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    // Every Sheets call goes through this; init() replaces it with the configured one
+    private SheetsRequestScheduler scheduler = SheetsRequestScheduler.unlimited();
+    private final ReentrantLock probeLock = new ReentrantLock();
+
     private final ConcurrentLinkedQueue<WriteOperation> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // tab + '\n' + id of appends not yet confirmed by Sheets (queued, in flight or re-queued) -> count
+    private final ConcurrentHashMap<String, Integer> unconfirmedAppends = new ConcurrentHashMap<>();
     private final ReentrantLock flushLock = new ReentrantLock();
 
+    // Released on every enqueue; the flusher thread sleeps on it while the queue is empty.
+    private final Semaphore flushSignal = new Semaphore(0);
+    private volatile Thread flusherThread;
+
     public SheetsClient(Sheets sheetsService, InMemoryStore store) {
         this.sheetsService = sheetsService;
         this.store = store;
@@ -41,44 +90,58 @@ public class SheetsClient {
 
     @PostConstruct
     public void init() {
+        scheduler = new SheetsRequestScheduler(quotaRequestsPerMinute, quotaBurst,
+                quotaBackoffInitialMs, quotaBackoffMaxMs);
+        if (meterRegistry != null) scheduler.bindTo(meterRegistry);
         loadAllTabs();
         store.setReady(true);
+        flusherThread = Thread.ofVirtual().name("sheets-flusher").start(this::runFlusher);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        Thread flusher = flusherThread;
+        flusherThread = null;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Last chance for writes queued during shutdown
+        flushPendingWrites();
+    }
+
+    @Override
     public void loadAllTabs() {
         try {
             log.info("Loading all tabs from Google Sheets...");
             long start = System.currentTimeMillis();
 
-            List<String> ranges = Arrays.stream(TAB_NAMES)
-                    .map(name -> name + "!A:Z")
+            // Only each tab's own columns; notes or formulas to the right are never fetched
+            List<String> ranges = TAB_NAMES.stream()
+                    .map(name -> {
+                        TabSchema<?> schema = Tabs.forName(name);
+                        return schema != null ? schema.range() : name + "!A:Z";
+                    })
                     .toList();
 
-            BatchGetValuesResponse response = sheetsService.spreadsheets().values()
+            // Stream the response into the loaders instead of letting the client build every tab's rows first
+            HttpResponse response = scheduler.call(Priority.REFRESH, () -> sheetsService.spreadsheets().values()
                     .batchGet(spreadsheetId)
                     .setRanges(ranges)
                     .setValueRenderOption("UNFORMATTED_VALUE")
-                    .execute();
-
-            List<ValueRange> valueRanges = response.getValueRanges();
-            if (valueRanges == null || valueRanges.size() < TAB_NAMES.length) {
-                log.warn("Not all tabs returned from Sheets. Got: {}", valueRanges != null ? valueRanges.size() : 0);
+                    .executeUnparsed());
+            int received;
+            try (InputStream body = response.getContent()) {
+                received = BatchGetReader.read(body, TAB_NAMES, store::loadTab);
+            } finally {
+                response.disconnect();
             }
-
-            for (int i = 0; i < TAB_NAMES.length && i < (valueRanges != null ? valueRanges.size() : 0); i++) {
-                List<List<Object>> dataRows = valueRanges.get(i).getValues();
-                if (dataRows == null) dataRows = List.of();
-
-                switch (TAB_NAMES[i]) {
-                    case "Customers" -> store.loadCustomers(dataRows);
-                    case "Users" -> store.loadUsers(dataRows);
-                    case "Orders" -> store.loadOrders(dataRows);
-                    case "Order_Items" -> store.loadOrderItems(dataRows);
-                    case "Drafts" -> store.loadDrafts(dataRows);
-                    case "My_Customers" -> store.loadMyCustomers(dataRows);
-                    case "Sync_State" -> store.loadSyncStates(dataRows);
-                    case "Customer_Boards" -> store.loadCustomerBoards(dataRows);
-                }
+            if (received < TAB_NAMES.size()) {
+                log.warn("Not all tabs returned from Sheets. Got: {}", received);
             }
 
             long elapsed = System.currentTimeMillis() - start;
@@ -91,71 +154,114 @@ public class SheetsClient {
 
     // --- Write operations ---
 
+    @Override
     public void appendRow(String tab, List<Object> row) {
-        pendingWrites.add(new WriteOperation(WriteType.APPEND, tab, List.of(row), -1));
+        unconfirmedAppends.merge(appendKey(tab, row), 1, Integer::sum);
+        enqueue(new WriteOperation(WriteType.APPEND, tab, List.of(row), -1));
+    }
+
+    @Override
+    public boolean hasPendingAppend(String tab, String id) {
+        return unconfirmedAppends.containsKey(tab + '\n' + id);
+    }
+
+    private static String appendKey(String tab, List<Object> row) {
+        return tab + '\n' + (row.isEmpty() ? "" : String.valueOf(row.get(0)));
     }
 
+    @Override
     public void updateRow(String tab, int rowIndex, List<Object> row) {
-        pendingWrites.add(new WriteOperation(WriteType.UPDATE, tab, List.of(row), rowIndex));
+        enqueue(new WriteOperation(WriteType.UPDATE, tab, List.of(row), rowIndex));
+    }
+
+    private void enqueue(WriteOperation op) {
+        pendingWrites.add(op);
+        pendingCount.incrementAndGet();
+        flushSignal.release();
     }
 
-    @Scheduled(fixedDelayString = "${app.flush-interval-seconds:5}000")
-    public void flushPendingWrites() {
-        if (pendingWrites.isEmpty()) return;
-        if (!flushLock.tryLock()) return;
+    @Override
+    public boolean flushPendingWrites() {
+        if (pendingWrites.isEmpty()) return true;
+        flushLock.lock();
         try {
-            doFlush();
+            return doFlush();
         } finally {
             flushLock.unlock();
         }
     }
 
-    // --- Periodic refresh ---
-
-    @Scheduled(fixedDelayString = "${app.refresh-interval-seconds:300}000", initialDelay = 300000)
-    public void periodicRefresh() {
-        log.info("Periodic refresh from Google Sheets...");
+    /**
+     * Sleeps until a write is enqueued, then holds the batch open for a short coalescing window
+     * (or until it reaches flushMaxBatch) so a burst of writes goes out in as few API calls as
+     * possible. Idle periods cost nothing. After a failed flush it backs off before retrying.
+     */
+    private void runFlusher() {
+        log.info("Sheets flusher started: coalesceMs={}, maxBatch={}, retrySeconds={}",
+                flushCoalesceMs, flushMaxBatch, flushRetrySeconds);
         try {
-            // Flush all pending writes FIRST so the reload sees up-to-date data.
-            // Without this, customers added by a concurrent sync but not yet flushed
-            // would be removed from memory by the retainAll in loadCustomers(), causing
-            // the next sync to re-append them as "new" — producing duplicates.
-            flushLock.lock();
-            try {
-                doFlush();
-            } finally {
-                flushLock.unlock();
+            while (!Thread.currentThread().isInterrupted()) {
+                flushSignal.acquire();
+                awaitCoalescingWindow();
+                flushSignal.drainPermits();
+
+                if (!flushPendingWrites()) {
+                    TimeUnit.SECONDS.sleep(Math.max(1, flushRetrySeconds));
+                }
+                // Re-queued failures and writes that raced the drain do not hold a permit
+                if (!pendingWrites.isEmpty()) {
+                    flushSignal.release();
+                }
             }
-            loadAllTabs();
-        } catch (Exception e) {
-            log.error("Periodic refresh failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        log.info("Sheets flusher stopped: pending={}", pendingCount.get());
     }
 
-    private void doFlush() {
+    private void awaitCoalescingWindow() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushCoalesceMs));
+        while (pendingCount.get() < flushMaxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+            flushSignal.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean doFlush() {
         Map<String, List<WriteOperation>> byTab = new LinkedHashMap<>();
         WriteOperation op;
         while ((op = pendingWrites.poll()) != null) {
+            pendingCount.decrementAndGet();
             byTab.computeIfAbsent(op.tab, k -> new ArrayList<>()).add(op);
         }
 
+        boolean allSucceeded = true;
         for (Map.Entry<String, List<WriteOperation>> entry : byTab.entrySet()) {
             String tab = entry.getKey();
-            List<WriteOperation> ops = entry.getValue();
-
-            for (WriteOperation writeOp : ops) {
+            for (List<WriteOperation> batch : coalesceRuns(entry.getValue())) {
                 try {
-                    if (writeOp.type == WriteType.APPEND) {
+                    WriteOperation first = batch.get(0);
+                    if (first.type == WriteType.APPEND) {
+                        List<List<Object>> rows = new ArrayList<>();
+                        for (WriteOperation appendOp : batch) {
+                            rows.addAll(appendOp.rows);
+                        }
                         ValueRange body = new ValueRange()
                                 .setMajorDimension("ROWS")
                                 .setRange(tab + "!A1")
-                                .setValues(normalizeRows(writeOp.rows));
-                        AppendValuesResponse appendResponse = sheetsService.spreadsheets().values()
+                                .setValues(normalizeRows(rows));
+                        AppendValuesResponse appendResponse = scheduler.call(Priority.WRITE, () -> sheetsService
+                                .spreadsheets().values()
                                 .append(spreadsheetId, tab + "!A1", body)
                                 .setValueInputOption("RAW")
                                 .setInsertDataOption("INSERT_ROWS")
                                 .setIncludeValuesInResponse(false)
-                                .execute();
+                                .execute());
+                        for (WriteOperation appended : batch) {
+                            unconfirmedAppends.computeIfPresent(appendKey(tab, appended.rows.get(0)),
+                                    (k, count) -> count > 1 ? count - 1 : null);
+                        }
                         if (appendResponse != null && appendResponse.getUpdates() != null) {
                             log.info("Sheets append: tab={}, updatedRange={}, updatedRows={}, updatedColumns={}",
                                     tab,
@@ -163,56 +269,258 @@ public class SheetsClient {
                                     appendResponse.getUpdates().getUpdatedRows(),
                                     appendResponse.getUpdates().getUpdatedColumns());
                         }
-                    } else if (writeOp.type == WriteType.UPDATE) {
-                        String range = tab + "!A" + (writeOp.rowIndex + 1);
-                        ValueRange body = new ValueRange()
-                                .setMajorDimension("ROWS")
-                                .setValues(normalizeRows(writeOp.rows));
-                        sheetsService.spreadsheets().values()
-                                .update(spreadsheetId, range, body)
-                                .setValueInputOption("RAW")
-                                .execute();
+                    } else if (first.type == WriteType.UPDATE) {
+                        // rowIndex is the 1-based sheet row, as returned by findRowIndex
+                        List<ValueRange> data = new ArrayList<>(batch.size());
+                        for (WriteOperation updateOp : batch) {
+                            data.add(new ValueRange()
+                                    .setRange(tab + "!A" + updateOp.rowIndex)
+                                    .setMajorDimension("ROWS")
+                                    .setValues(normalizeRows(updateOp.rows)));
+                        }
+                        scheduler.call(Priority.WRITE, () -> sheetsService.spreadsheets().values()
+                                .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest()
+                                        .setValueInputOption("RAW")
+                                        .setData(data))
+                                .execute());
                     }
                 } catch (Exception e) {
-                    log.error("Failed to flush write to tab {}: {}", tab, e.getMessage());
-                    // Re-queue failed write
-                    pendingWrites.add(writeOp);
+                    log.error("Failed to flush {} write(s) to tab {}: {}", batch.size(), tab, e.getMessage());
+                    allSucceeded = false;
+                    // Re-queue failed writes; the flusher retries after flushRetrySeconds
+                    for (WriteOperation failed : batch) {
+                        pendingWrites.add(failed);
+                        pendingCount.incrementAndGet();
+                    }
                 }
             }
         }
+        return allSucceeded;
+    }
+
+    /**
+     * Groups consecutive writes of the same type to a tab into one batch (one API call: an append
+     * or a values.batchUpdate). Runs keep their relative order, so ordering within the tab is preserved.
+     */
+    private List<List<WriteOperation>> coalesceRuns(List<WriteOperation> ops) {
+        List<List<WriteOperation>> batches = new ArrayList<>();
+        List<WriteOperation> run = null;
+        for (WriteOperation writeOp : ops) {
+            if (run == null || run.get(0).type != writeOp.type) {
+                run = new ArrayList<>();
+                batches.add(run);
+            }
+            run.add(writeOp);
+        }
+        return batches;
     }
 
     // --- Find row index by ID (column A) ---
 
+    @Override
     public int findRowIndex(String tab, String id) {
+        return findRowIndexes(tab, List.of(id)).getOrDefault(id, -1);
+    }
+
+    /** Resolves all ids with a single read of column A. */
+    @Override
+    public Map<String, Integer> findRowIndexes(String tab, Collection<String> ids) {
+        Map<String, Integer> indexes = new HashMap<>();
+        if (ids.isEmpty()) return indexes;
+        Set<String> wanted = ids instanceof Set<String> set ? set : new HashSet<>(ids);
         try {
-            List<List<Object>> values = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, tab + "!A:A")
-                    .setValueRenderOption("UNFORMATTED_VALUE")
-                    .execute()
-                    .getValues();
-            if (values == null) return -1;
+            List<List<Object>> values = readValues(Priority.WRITE, tab + "!A:A");
+            if (values == null) return indexes;
             for (int i = 0; i < values.size(); i++) {
-                if (!values.get(i).isEmpty() && id.equals(values.get(i).get(0).toString())) {
-                    return i + 1; // 1-based for Sheets
+                if (values.get(i).isEmpty()) continue;
+                String id = values.get(i).get(0).toString();
+                if (wanted.contains(id)) {
+                    indexes.putIfAbsent(id, i + 1); // 1-based for Sheets
                 }
             }
         } catch (Exception e) {
-            log.error("Failed to find row index in tab {}: {}", tab, e.getMessage());
+            log.error("Failed to find row indexes in tab {}: {}", tab, e.getMessage());
         }
-        return -1;
+        return indexes;
+    }
+
+    // --- Archive tabs ---
+
+    /** Archive reads are background work as far as the quota goes: user writes go first. */
+    @Override
+    public List<List<Object>> readTab(String tab) {
+        return readTab(Priority.REFRESH, tab);
+    }
+
+    @Override
+    public List<String> listTabs() {
+        try {
+            return List.copyOf(sheetIds().keySet());
+        } catch (Exception e) {
+            throw new ExternalServiceException("Google Sheets", "Failed to list tabs", e);
+        }
+    }
+
+    private List<List<Object>> readTab(Priority priority, String tab) {
+        TabSchema<?> schema = Tabs.forName(tab);
+        String range = schema != null ? schema.range(tab) : tab;
+        try {
+            List<List<Object>> values = readValues(priority, range);
+            return values != null ? values : List.of();
+        } catch (GoogleJsonResponseException e) {
+            // "Unable to parse range": the tab was never created
+            if (e.getStatusCode() == 400) return List.of();
+            throw new ExternalServiceException("Google Sheets", "Failed to read tab " + tab, e);
+        } catch (Exception e) {
+            throw new ExternalServiceException("Google Sheets", "Failed to read tab " + tab, e);
+        }
+    }
+
+    /**
+     * Runs under the flush lock after a flush, so no queued update can land on a row index this
+     * shifts. Every copy is appended before anything is deleted, and the deletes of all moves go in one
+     * batchUpdate, which Sheets applies all or nothing: bottom-up per tab, so each request's index is
+     * still valid when it is applied.
+     */
+    @Override
+    public void moveRows(List<RowMove> moves) {
+        if (moves.stream().allMatch(move -> move.ids().isEmpty())) return;
+        flushLock.lock();
+        try {
+            if (!doFlush()) throw new IllegalStateException("Pending writes could not be flushed");
+            Map<String, Integer> sheetIds = sheetIds();
+            List<Request> deletes = new ArrayList<>();
+            for (RowMove move : moves) {
+                Integer fromSheetId = sheetIds.get(move.fromTab());
+                if (fromSheetId == null || move.ids().isEmpty()) continue;
+                if (!sheetIds.containsKey(move.toTab())) addSheet(move.toTab());
+
+                List<List<Object>> rows = readTab(Priority.REFRESH, move.fromTab());
+                List<Integer> movedIndexes = new ArrayList<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (hasId(rows.get(i), move.ids())) movedIndexes.add(i);
+                }
+                if (movedIndexes.isEmpty()) continue;
+
+                // A previous attempt may have copied some rows before failing; copy each id once
+                Set<String> present = new HashSet<>();
+                for (List<Object> row : readTab(Priority.REFRESH, move.toTab())) {
+                    if (hasId(row, move.ids())) present.add(row.get(0).toString());
+                }
+                List<List<Object>> copies = new ArrayList<>();
+                for (int index : movedIndexes) {
+                    List<Object> row = rows.get(index);
+                    if (present.add(row.get(0).toString())) copies.add(row);
+                }
+                if (!copies.isEmpty()) {
+                    scheduler.call(Priority.REFRESH, () -> sheetsService.spreadsheets().values()
+                            .append(spreadsheetId, move.toTab() + "!A1", new ValueRange()
+                                    .setMajorDimension("ROWS")
+                                    .setValues(normalizeRows(copies)))
+                            .setValueInputOption("RAW")
+                            .setInsertDataOption("INSERT_ROWS")
+                            .setIncludeValuesInResponse(false)
+                            .execute());
+                }
+                log.info("Copied {} of {} rows from {} to {}", copies.size(), movedIndexes.size(),
+                        move.fromTab(), move.toTab());
+
+                for (int end = movedIndexes.size() - 1; end >= 0; ) {
+                    int start = end;
+                    while (start > 0 && movedIndexes.get(start - 1) == movedIndexes.get(start) - 1) start--;
+                    deletes.add(new Request().setDeleteDimension(new DeleteDimensionRequest()
+                            .setRange(new DimensionRange()
+                                    .setSheetId(fromSheetId)
+                                    .setDimension("ROWS")
+                                    .setStartIndex(movedIndexes.get(start))
+                                    .setEndIndex(movedIndexes.get(end) + 1))));
+                    end = start - 1;
+                }
+            }
+            if (deletes.isEmpty()) return;
+            scheduler.call(Priority.REFRESH, () -> sheetsService.spreadsheets()
+                    .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(deletes))
+                    .execute());
+            log.info("Deleted moved rows ({} delete ranges)", deletes.size());
+        } catch (ExternalServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExternalServiceException("Google Sheets", "Failed to move rows", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static boolean hasId(List<Object> row, Set<String> ids) {
+        return !row.isEmpty() && row.get(0) != null && ids.contains(row.get(0).toString());
+    }
+
+    private Map<String, Integer> sheetIds() throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        Spreadsheet spreadsheet = scheduler.call(Priority.REFRESH, () -> sheetsService.spreadsheets()
+                .get(spreadsheetId)
+                .setFields("sheets.properties(sheetId,title)")
+                .execute());
+        for (Sheet sheet : spreadsheet.getSheets()) {
+            ids.put(sheet.getProperties().getTitle(), sheet.getProperties().getSheetId());
+        }
+        return ids;
+    }
+
+    private void addSheet(String tab) throws IOException {
+        scheduler.call(Priority.REFRESH, () -> sheetsService.spreadsheets()
+                .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(List.of(
+                        new Request().setAddSheet(new AddSheetRequest()
+                                .setProperties(new SheetProperties().setTitle(tab))))))
+                .execute());
+        log.info("Created tab {}", tab);
+    }
+
+    private List<List<Object>> readValues(Priority priority, String range) throws IOException {
+        return scheduler.call(priority, () -> sheetsService.spreadsheets().values()
+                .get(spreadsheetId, range)
+                .setValueRenderOption("UNFORMATTED_VALUE")
+                .execute()
+                .getValues());
     }
 
     // --- Health check ---
 
+    /**
+     * Passive first: flushes, lookups and refreshes all pass through the scheduler, and whether the latest
+     * one reached Sheets is the answer. Only when nothing happened for {@code google.sheets.health.max-age-seconds}
+     * does one caller probe, at the lowest priority; concurrent callers meanwhile get the last known state.
+     */
+    @Override
     public boolean isHealthy() {
+        SheetsRequestScheduler.Outcome last = scheduler.lastOutcome();
+        if (last != null && last.ageMillis() < TimeUnit.SECONDS.toMillis(healthMaxAgeSeconds)) return last.ok();
+        if (!probeLock.tryLock()) return last == null || last.ok();
         try {
-            sheetsService.spreadsheets().get(spreadsheetId).execute();
-            return true;
+            scheduler.tryCall(Priority.HEALTH, HEALTH_MAX_WAIT_MS, () -> sheetsService
+                    .spreadsheets().get(spreadsheetId)
+                    .setFields("spreadsheetId")
+                    .execute());
         } catch (Exception e) {
-            log.error("Sheets health check failed: {}", e.getMessage());
-            return false;
+            log.error("Sheets health probe failed: {}", e.getMessage());
+        } finally {
+            probeLock.unlock();
+        }
+        // No token in time leaves the previous outcome in place
+        last = scheduler.lastOutcome();
+        return last == null || last.ok();
+    }
+
+    @Override
+    public Map<String, Object> healthDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        SheetsRequestScheduler.Outcome last = scheduler.lastOutcome();
+        if (last != null) {
+            details.put("lastCallAgeMs", last.ageMillis());
+            if (last.error() != null) details.put("lastError", last.error());
         }
+        details.put("pendingWrites", pendingCount.get());
+        return details;
     }
 
     // --- Types ---
@@ -0,0 +1,260 @@
+package ge.orderapp.repository;
+
+import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket in front of every Sheets API call made by {@link SheetsClient}. Each call takes one token;
+ * tokens refill at {@code requestsPerMinute} up to {@code burst}. Waiting callers are served by
+ * {@link Priority}, then in arrival order, so a queue of background reads never holds up a user's write.
+ * <p>
+ * A 429 empties the bucket and pauses every caller for a backoff that doubles on each consecutive 429 (up
+ * to {@code maxBackoffMs}) and resets on the next success. The call itself is not retried here; callers
+ * keep their own retry (e.g. the flush re-queues its writes). {@code requestsPerMinute <= 0} disables the
+ * bucket but keeps the backoff.
+ * <p>
+ * The outcome of the latest call is kept for health checks: with regular traffic the client knows whether
+ * Sheets is reachable without asking. Only transport errors, 5xx and auth failures (401/403) count as
+ * unreachable; any other 4xx is an answer about the request (e.g. reading a tab that does not exist).
+ */
+final class SheetsRequestScheduler {
+
+    /** Highest first. WRITE covers everything a user request waits on, lookups and reports included. */
+    enum Priority { WRITE, REFRESH, HEALTH }
+
+    @FunctionalInterface
+    interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+
+    private record Waiter(Priority priority, long seq) {}
+
+    /**
+     * A throttled call, or one refused for its own sake (4xx), still reached Sheets, so it counts as ok.
+     * {@code error} is set for any failed call.
+     */
+    record Outcome(boolean ok, long atNanos, String error) {
+        long ageMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - atNanos);
+        }
+    }
+
+    private final double tokensPerNano;
+    private final int burst;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>((a, b) -> a.priority() != b.priority()
+            ? a.priority().compareTo(b.priority())
+            : Long.compare(a.seq(), b.seq()));
+    private long seq;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long pausedUntil = System.nanoTime();
+    private long backoffNanos;
+    private volatile Outcome lastOutcome;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> succeeded = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> throttled = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> failed = new EnumMap<>(Priority.class);
+
+    SheetsRequestScheduler(int requestsPerMinute, int burst, long initialBackoffMs, long maxBackoffMs) {
+        this.tokensPerNano = requestsPerMinute > 0 ? requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1) : 0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialBackoffMs));
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(initialBackoffMs, maxBackoffMs));
+    }
+
+    /** No rate limit and no backoff; for a client used without Spring. */
+    static SheetsRequestScheduler unlimited() {
+        return new SheetsRequestScheduler(0, 1, 0, 0);
+    }
+
+    void bindTo(MeterRegistry registry) {
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("app.sheets.quota.wait")
+                    .description("Time Sheets calls waited for a quota token")
+                    .tag("priority", tag).register(registry));
+            succeeded.put(priority, Counter.builder("app.sheets.requests")
+                    .tag("priority", tag).tag("outcome", "ok").register(registry));
+            throttled.put(priority, Counter.builder("app.sheets.requests")
+                    .tag("priority", tag).tag("outcome", "throttled").register(registry));
+            failed.put(priority, Counter.builder("app.sheets.requests")
+                    .tag("priority", tag).tag("outcome", "error").register(registry));
+        }
+        Gauge.builder("app.sheets.quota.tokens", this, SheetsRequestScheduler::availableTokens)
+                .description("Sheets quota tokens currently available")
+                .register(registry);
+        Gauge.builder("app.sheets.quota.waiting", this, SheetsRequestScheduler::waiting)
+                .description("Sheets calls waiting for a quota token")
+                .register(registry);
+    }
+
+    /** Waits for a token, then runs {@code call}. */
+    <T> T call(Priority priority, SheetsCall<T> call) throws IOException {
+        try {
+            acquire(priority, Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Sheets quota", e);
+        }
+        return run(priority, call);
+    }
+
+    /**
+     * Like {@link #call}, but gives up when no token is available within {@code maxWaitMs}.
+     * Returns null in that case, without running {@code call}.
+     */
+    <T> T tryCall(Priority priority, long maxWaitMs, SheetsCall<T> call) throws IOException {
+        try {
+            if (!acquire(priority, TimeUnit.MILLISECONDS.toNanos(maxWaitMs))) return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return run(priority, call);
+    }
+
+    private <T> T run(Priority priority, SheetsCall<T> call) throws IOException {
+        try {
+            T result = call.execute();
+            onSuccess();
+            lastOutcome = new Outcome(true, System.nanoTime(), null);
+            count(succeeded, priority);
+            return result;
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 429) {
+                onThrottled();
+                lastOutcome = new Outcome(true, System.nanoTime(), null);
+                count(throttled, priority);
+            } else {
+                lastOutcome = new Outcome(reachedSheets(e.getStatusCode()), System.nanoTime(), "HTTP " + e.getStatusCode());
+                count(failed, priority);
+            }
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            lastOutcome = new Outcome(false, System.nanoTime(), e.getClass().getSimpleName());
+            count(failed, priority);
+            throw e;
+        }
+    }
+
+    private static boolean reachedSheets(int status) {
+        return status >= 400 && status < 500 && status != 401 && status != 403;
+    }
+
+    /** The latest call's outcome, or null before the first call. */
+    Outcome lastOutcome() {
+        return lastOutcome;
+    }
+
+    private boolean acquire(Priority priority, long maxWaitNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = maxWaitNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + maxWaitNanos;
+        lock.lock();
+        try {
+            Waiter me = new Waiter(priority, seq++);
+            waiters.add(me);
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    refill(now);
+                    long waitNanos;
+                    if (waiters.peek() != me) {
+                        waitNanos = Long.MAX_VALUE; // woken when the head leaves
+                    } else if (now < pausedUntil) {
+                        waitNanos = pausedUntil - now;
+                    } else if (tokensPerNano == 0 || tokens >= 1) {
+                        if (tokensPerNano > 0) tokens -= 1;
+                        record(priority, now - start);
+                        return true;
+                    } else {
+                        waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                    }
+                    if (deadline != Long.MAX_VALUE) {
+                        long left = deadline - now;
+                        if (left <= 0) return false;
+                        waitNanos = Math.min(waitNanos, left);
+                    }
+                    if (waitNanos == Long.MAX_VALUE) changed.await();
+                    else changed.awaitNanos(waitNanos);
+                }
+            } finally {
+                waiters.remove(me);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        if (tokensPerNano > 0) tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    private void onThrottled() {
+        lock.lock();
+        try {
+            backoffNanos = backoffNanos == 0 ? initialBackoffNanos : Math.min(maxBackoffNanos, backoffNanos * 2);
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + backoffNanos);
+            tokens = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            backoffNanos = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double availableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokensPerNano > 0 ? tokens : Double.NaN;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int waiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(Priority priority, long waitedNanos) {
+        Timer timer = waitTimers.get(priority);
+        if (timer != null) timer.record(waitedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static void count(Map<Priority, Counter> counters, Priority priority) {
+        Counter counter = counters.get(priority);
+        if (counter != null) counter.increment();
+    }
+}
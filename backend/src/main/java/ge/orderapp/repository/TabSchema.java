@@ -0,0 +1,202 @@
+package ge.orderapp.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Column layout of one tab: each column's type, default and the entity field it holds, in sheet order.
+ * The same declaration drives both directions, so {@link #decode} and {@link #encode} cannot drift apart
+ * the way hand-written positional rows did. See {@link Tabs} for the schemas themselves.
+ * <p>
+ * Decoding takes cells as the Sheets API returns them with UNFORMATTED_VALUE (strings, numbers, booleans)
+ * and only pays for a conversion when the cell is not already the declared type.
+ */
+public final class TabSchema<T> {
+
+    private final String tab;
+    private final List<Column<T, ?>> columns;
+    private final Function<Row, T> constructor;
+
+    private TabSchema(String tab, List<Column<T, ?>> columns, Function<Row, T> constructor) {
+        this.tab = tab;
+        this.columns = List.copyOf(columns);
+        this.constructor = constructor;
+    }
+
+    public static <T> Builder<T> builder(String tab) {
+        return new Builder<>(tab);
+    }
+
+    public String tab() {
+        return tab;
+    }
+
+    public int width() {
+        return columns.size();
+    }
+
+    /** The A1 range covering exactly this tab's columns, e.g. {@code Orders!A:I}. */
+    public String range() {
+        return tab + "!A:" + columnLetter(columns.size() - 1);
+    }
+
+    /** The same columns in another tab with this layout, e.g. an archive shard. */
+    public String range(String otherTab) {
+        return otherTab + "!A:" + columnLetter(columns.size() - 1);
+    }
+
+    /** Decodes one row; missing trailing cells take their column's default. Returns null for an empty row. */
+    public T decode(List<Object> cells) {
+        if (cells == null || cells.isEmpty()) return null;
+        return constructor.apply(new Row(cells));
+    }
+
+    public List<Object> encode(T entity) {
+        Object[] cells = new Object[columns.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = columns.get(i).encode(entity);
+        }
+        return Arrays.asList(cells);
+    }
+
+    static String columnLetter(int index) {
+        StringBuilder letters = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            letters.insert(0, (char) ('A' + i % 26));
+        }
+        return letters.toString();
+    }
+
+    // --- Columns ---
+
+    private enum Type { TEXT, OPTIONAL_TEXT, INTEGER, FLAG }
+
+    /** A declared column; pass it to {@link Row#get} inside the schema's constructor function. */
+    public static final class Column<T, V> {
+        private final int index;
+        private final Type type;
+        private final Function<T, V> getter;
+
+        private Column(int index, Type type, Function<T, V> getter) {
+            this.index = index;
+            this.type = type;
+            this.getter = getter;
+        }
+
+        @SuppressWarnings("unchecked")
+        V decode(List<Object> cells) {
+            Object cell = index < cells.size() ? cells.get(index) : null;
+            return (V) switch (type) {
+                case TEXT -> text(cell);
+                case OPTIONAL_TEXT -> optionalText(cell);
+                case INTEGER -> integer(cell);
+                case FLAG -> flag(cell);
+            };
+        }
+
+        Object encode(T entity) {
+            V value = getter.apply(entity);
+            return switch (type) {
+                case TEXT, OPTIONAL_TEXT -> value == null ? "" : value;
+                case INTEGER -> value == null ? 0 : value;
+                case FLAG -> Boolean.TRUE.equals(value) ? "TRUE" : "FALSE";
+            };
+        }
+    }
+
+    /** The cells of one row, read through the schema's typed columns. */
+    public static final class Row {
+        private final List<Object> cells;
+
+        private Row(List<Object> cells) {
+            this.cells = cells;
+        }
+
+        public <V> V get(Column<?, V> column) {
+            return column.decode(cells);
+        }
+    }
+
+    private static String text(Object cell) {
+        if (cell == null) return "";
+        if (cell instanceof String s) {
+            int length = s.length();
+            // Most cells carry no surrounding whitespace; skip the trim copy for them
+            return length == 0 || (s.charAt(0) > ' ' && s.charAt(length - 1) > ' ') ? s : s.trim();
+        }
+        if (cell instanceof Number n && n.doubleValue() == Math.rint(n.doubleValue())
+                && Math.abs(n.doubleValue()) < 1e15) {
+            // Ids and TINs typed as numbers come back as e.g. 404476988.0; keep the digits only
+            return Long.toString(n.longValue());
+        }
+        return cell.toString().trim();
+    }
+
+    private static String optionalText(Object cell) {
+        String s = text(cell);
+        return s.isBlank() ? null : s;
+    }
+
+    private static Integer integer(Object cell) {
+        if (cell instanceof Number n) return n.intValue();
+        String s = text(cell);
+        if (s.isEmpty()) return 0;
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Double.parseDouble(s);
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static Boolean flag(Object cell) {
+        if (cell instanceof Boolean b) return b;
+        return "TRUE".equalsIgnoreCase(text(cell));
+    }
+
+    // --- Builder ---
+
+    public static final class Builder<T> {
+        private final String tab;
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+
+        private Builder(String tab) {
+            this.tab = tab;
+        }
+
+        /** Trimmed text; empty when the cell is missing. */
+        public Column<T, String> text(Function<T, String> getter) {
+            return add(Type.TEXT, getter);
+        }
+
+        /** Trimmed text; null when the cell is missing or blank. */
+        public Column<T, String> optionalText(Function<T, String> getter) {
+            return add(Type.OPTIONAL_TEXT, getter);
+        }
+
+        /** Whole number; 0 when the cell is missing or not a number. */
+        public Column<T, Integer> integer(Function<T, Integer> getter) {
+            return add(Type.INTEGER, getter);
+        }
+
+        /** TRUE/FALSE; false unless the cell says TRUE. */
+        public Column<T, Boolean> flag(Function<T, Boolean> getter) {
+            return add(Type.FLAG, getter);
+        }
+
+        public TabSchema<T> build(Function<Row, T> constructor) {
+            return new TabSchema<>(tab, columns, constructor);
+        }
+
+        private <V> Column<T, V> add(Type type, Function<T, V> getter) {
+            Column<T, V> column = new Column<>(columns.size(), type, getter);
+            columns.add(column);
+            return column;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ge.orderapp.repository;
+
+import ge.orderapp.dto.response.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Schemas of the spreadsheet tabs, columns in sheet order. Tabs whose rows hold more (or other) than a
+ * DTO get a small row record of their own.
+ */
+public final class Tabs {
+
+    private Tabs() {}
+
+    /** A Users row: the user plus its password hash, which UserDto deliberately does not carry. */
+    public record UserRow(UserDto user, String passwordHash) {}
+
+    /** A Drafts row; the items stay JSON here and are (de)serialized by the caller's ObjectMapper. */
+    public record DraftRow(String draftId, String managerId, String name, String itemsJson,
+                           String createdAt, String updatedAt) {}
+
+    public record BoardRow(String customerId, String board, String addedAt, String addedBy) {}
+
+    public static final TabSchema<CustomerDto> CUSTOMERS;
+    public static final TabSchema<UserRow> USERS;
+    public static final TabSchema<OrderDto> ORDERS;
+    public static final TabSchema<OrderItemDto> ORDER_ITEMS;
+    public static final TabSchema<DraftRow> DRAFTS;
+    public static final TabSchema<MyCustomerDto> MY_CUSTOMERS;
+    public static final TabSchema<SyncStateDto> SYNC_STATE;
+    public static final TabSchema<BoardRow> CUSTOMER_BOARDS;
+
+    static {
+        TabSchema.Builder<CustomerDto> c = TabSchema.builder("Customers");
+        var customerId = c.text(CustomerDto::customerId);
+        var name = c.text(CustomerDto::name);
+        var tin = c.text(CustomerDto::tin);
+        var frequencyScore = c.integer(CustomerDto::frequencyScore);
+        var addedBy = c.text(CustomerDto::addedBy);
+        var active = c.flag(CustomerDto::active);
+        var createdAt = c.text(CustomerDto::createdAt);
+        var updatedAt = c.text(CustomerDto::updatedAt);
+        CUSTOMERS = c.build(r -> new CustomerDto(r.get(customerId), r.get(name), r.get(tin),
+                r.get(frequencyScore), r.get(addedBy), r.get(active), r.get(createdAt), r.get(updatedAt), null));
+    }
+
+    static {
+        TabSchema.Builder<UserRow> u = TabSchema.builder("Users");
+        var userId = u.text(row -> row.user().userId());
+        var username = u.text(row -> row.user().username());
+        var passwordHash = u.text(UserRow::passwordHash);
+        var displayName = u.text(row -> row.user().displayName());
+        var role = u.text(row -> row.user().role());
+        var active = u.flag(row -> row.user().active());
+        var createdAt = u.text(row -> row.user().createdAt());
+        USERS = u.build(r -> new UserRow(new UserDto(r.get(userId), r.get(username), r.get(displayName),
+                r.get(role), r.get(active), r.get(createdAt)), r.get(passwordHash)));
+    }
+
+    static {
+        TabSchema.Builder<OrderDto> o = TabSchema.builder("Orders");
+        var orderId = o.text(OrderDto::orderId);
+        var managerId = o.text(OrderDto::managerId);
+        var managerName = o.text(OrderDto::managerName);
+        var date = o.text(OrderDto::date);
+        var status = o.text(OrderDto::status);
+        var telegramSent = o.flag(OrderDto::telegramSent);
+        var telegramSentAt = o.text(OrderDto::telegramSentAt);
+        var itemCount = o.integer(OrderDto::itemCount);
+        var createdAt = o.text(OrderDto::createdAt);
+        ORDERS = o.build(r -> new OrderDto(r.get(orderId), r.get(managerId), r.get(managerName), r.get(date),
+                r.get(status), r.get(telegramSent), r.get(telegramSentAt), r.get(itemCount), r.get(createdAt), null));
+    }
+
+    static {
+        TabSchema.Builder<OrderItemDto> i = TabSchema.builder("Order_Items");
+        var itemId = i.text(OrderItemDto::itemId);
+        var orderId = i.text(OrderItemDto::orderId);
+        var customerName = i.text(OrderItemDto::customerName);
+        var customerId = i.text(OrderItemDto::customerId);
+        var comment = i.text(OrderItemDto::comment);
+        var createdAt = i.text(OrderItemDto::createdAt);
+        var board = i.optionalText(OrderItemDto::board);
+        ORDER_ITEMS = i.build(r -> new OrderItemDto(r.get(itemId), r.get(orderId), r.get(customerName),
+                r.get(customerId), r.get(comment), r.get(createdAt), r.get(board)));
+    }
+
+    static {
+        TabSchema.Builder<DraftRow> d = TabSchema.builder("Drafts");
+        var draftId = d.text(DraftRow::draftId);
+        var managerId = d.text(DraftRow::managerId);
+        var name = d.text(DraftRow::name);
+        var itemsJson = d.text(DraftRow::itemsJson);
+        var createdAt = d.text(DraftRow::createdAt);
+        var updatedAt = d.text(DraftRow::updatedAt);
+        DRAFTS = d.build(r -> new DraftRow(r.get(draftId), r.get(managerId), r.get(name), r.get(itemsJson),
+                r.get(createdAt), r.get(updatedAt)));
+    }
+
+    static {
+        TabSchema.Builder<MyCustomerDto> m = TabSchema.builder("My_Customers");
+        var managerId = m.text(MyCustomerDto::managerId);
+        var customerName = m.text(MyCustomerDto::customerName);
+        var customerId = m.text(MyCustomerDto::customerId);
+        var addedAt = m.text(MyCustomerDto::addedAt);
+        MY_CUSTOMERS = m.build(r -> new MyCustomerDto(r.get(managerId), r.get(customerName), r.get(customerId),
+                r.get(addedAt)));
+    }
+
+    static {
+        TabSchema.Builder<SyncStateDto> s = TabSchema.builder("Sync_State");
+        var syncId = s.text(SyncStateDto::syncId);
+        var syncType = s.text(SyncStateDto::syncType);
+        var startDate = s.text(SyncStateDto::startDate);
+        var endDate = s.text(SyncStateDto::endDate);
+        var status = s.text(SyncStateDto::status);
+        var customersFound = s.integer(SyncStateDto::customersFound);
+        var customersAdded = s.integer(SyncStateDto::customersAdded);
+        var errorMessage = s.text(SyncStateDto::errorMessage);
+        var startedAt = s.text(SyncStateDto::startedAt);
+        var completedAt = s.text(SyncStateDto::completedAt);
+        SYNC_STATE = s.build(r -> new SyncStateDto(r.get(syncId), r.get(syncType), r.get(startDate), r.get(endDate),
+                r.get(status), r.get(customersFound), r.get(customersAdded), r.get(errorMessage),
+                r.get(startedAt), r.get(completedAt)));
+    }
+
+    static {
+        TabSchema.Builder<BoardRow> b = TabSchema.builder("Customer_Boards");
+        var customerId = b.text(BoardRow::customerId);
+        var board = b.text(BoardRow::board);
+        var addedAt = b.text(BoardRow::addedAt);
+        var addedBy = b.text(BoardRow::addedBy);
+        CUSTOMER_BOARDS = b.build(r -> new BoardRow(r.get(customerId), r.get(board), r.get(addedAt),
+                r.get(addedBy)));
+    }
+
+    private static final Map<String, TabSchema<?>> BY_NAME = List.of(
+                    CUSTOMERS, USERS, ORDERS, ORDER_ITEMS, DRAFTS, MY_CUSTOMERS, SYNC_STATE, CUSTOMER_BOARDS)
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(TabSchema::tab, Function.identity()));
+
+    private static final DateTimeFormatter SHARD_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * The schema of {@code tab}, or null for a tab without one. Archive shards ({@link #shard}) share
+     * the schema of their base tab.
+     */
+    public static TabSchema<?> forName(String tab) {
+        TabSchema<?> schema = BY_NAME.get(tab);
+        if (schema != null || tab == null || tab.length() < 9) return schema;
+        String base = tab.substring(0, tab.length() - 8);
+        if (!tab.startsWith("_", base.length())) return null;
+        try {
+            YearMonth.parse(tab.substring(base.length() + 1), SHARD_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return BY_NAME.get(base);
+    }
+
+    /** The archive tab holding {@code month}'s rows of {@code schema}'s tab, e.g. {@code Orders_2025_03}. */
+    public static String shard(TabSchema<?> schema, YearMonth month) {
+        return schema.tab() + "_" + month.format(SHARD_SUFFIX);
+    }
+
+    /** The month of {@code tab} if it is one of {@code schema}'s shards, otherwise null. */
+    public static YearMonth shardMonth(TabSchema<?> schema, String tab) {
+        String prefix = schema.tab() + "_";
+        if (tab == null || !tab.startsWith(prefix) || tab.length() != prefix.length() + 7) return null;
+        try {
+            return YearMonth.parse(tab.substring(prefix.length()), SHARD_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ge.orderapp.scheduling;
+
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.dto.response.CustomerDto;
+import ge.orderapp.repository.PersistenceBackend;
+import ge.orderapp.repository.Tabs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes changed customer frequency scores back to the Customers tab in batches. Orders only bump
+ * the in-memory counters; this resolves all affected rows with one lookup and queues one update per
+ * customer, which the persistence backend flushes together.
+ */
+@Component
+public class FrequencyScoreScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FrequencyScoreScheduler.class);
+
+    private final InMemoryStore store;
+
+    @Autowired(required = false)
+    private PersistenceBackend persistence;
+
+    public FrequencyScoreScheduler(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Scheduled(fixedDelayString = "${app.scores.flush-interval-seconds:30}000", initialDelay = 30000)
+    public void persistScores() {
+        if (persistence == null) return;
+        List<CustomerDto> changed = store.drainDirtyFrequencyScores();
+        if (changed.isEmpty()) return;
+
+        try {
+            Map<String, Integer> rows = persistence.findRowIndexes(
+                    "Customers", changed.stream().map(CustomerDto::customerId).toList());
+            int deferred = 0;
+            for (CustomerDto c : changed) {
+                Integer rowIndex = rows.get(c.customerId());
+                if (rowIndex == null) {
+                    // Row not visible yet (e.g. its append is still queued); try again next round.
+                    store.markFrequencyScoreDirty(c.customerId());
+                    deferred++;
+                    continue;
+                }
+                persistence.updateRow("Customers", rowIndex, Tabs.CUSTOMERS.encode(c));
+            }
+            log.info("Frequency scores queued for persistence: updated={}, deferred={}", changed.size() - deferred, deferred);
+        } catch (Exception e) {
+            changed.forEach(c -> store.markFrequencyScoreDirty(c.customerId()));
+            log.error("Failed to persist frequency scores, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistScores();
+    }
+}
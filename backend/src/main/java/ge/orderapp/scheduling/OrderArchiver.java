@@ -0,0 +1,87 @@
+package ge.orderapp.scheduling;
+
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.cache.OrderArchive;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.repository.PersistenceBackend;
+import ge.orderapp.repository.PersistenceSubscriber;
+import ge.orderapp.repository.Tabs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Moves orders of months before {@link OrderArchive#hotCutoff()} from the Orders and Order_Items tabs
+ * into their month's shard tabs, then drops them from the store. Both tabs move in one
+ * {@link PersistenceBackend#moveRows} call: orders and items are copied to the shards before either is
+ * deleted from the hot tabs, and the copy skips ids a shard already holds. A run that fails part way
+ * leaves the month in the store and its rows at least in the hot tabs; the next run repeats the move
+ * and completes it without duplicating rows.
+ * <p>
+ * Moving deletes rows and shifts the ones below, so each month is moved inside
+ * {@link PersistenceSubscriber#runExclusive}: nothing holds a row index across the move.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final InMemoryStore store;
+    private final OrderArchive archive;
+    private final PersistenceSubscriber subscriber;
+
+    @Autowired(required = false)
+    private PersistenceBackend persistence;
+
+    public OrderArchiver(InMemoryStore store, OrderArchive archive, PersistenceSubscriber subscriber) {
+        this.store = store;
+        this.archive = archive;
+        this.subscriber = subscriber;
+    }
+
+    @Scheduled(cron = "${app.orders.archive-cron:0 30 3 * * *}", zone = "${app.time-zone:Asia/Tbilisi}")
+    public void archiveClosedMonths() {
+        if (persistence == null || !store.isReady()) return;
+        YearMonth cutoff = archive.hotCutoff();
+        InMemoryStore.OrderView view = store.orderView();
+
+        Map<YearMonth, Set<String>> ordersByMonth = new TreeMap<>();
+        for (OrderDto order : view.getOrders(null, null, null, null, 0, Integer.MAX_VALUE)) {
+            YearMonth month = archive.monthOf(order);
+            if (month != null && month.isBefore(cutoff)) {
+                ordersByMonth.computeIfAbsent(month, k -> new HashSet<>()).add(order.orderId());
+            }
+        }
+
+        for (Map.Entry<YearMonth, Set<String>> entry : ordersByMonth.entrySet()) {
+            YearMonth month = entry.getKey();
+            Set<String> orderIds = entry.getValue();
+            Set<String> itemIds = new HashSet<>();
+            view.getOrderItemsByOrder(orderIds).values()
+                    .forEach(items -> items.forEach(item -> itemIds.add(item.itemId())));
+            try {
+                boolean moved = subscriber.runExclusive(() -> {
+                    persistence.moveRows(List.of(
+                            new PersistenceBackend.RowMove(Tabs.ORDER_ITEMS.tab(), Tabs.shard(Tabs.ORDER_ITEMS, month), itemIds),
+                            new PersistenceBackend.RowMove(Tabs.ORDERS.tab(), Tabs.shard(Tabs.ORDERS, month), orderIds)));
+                    store.dropOrders(orderIds);
+                });
+                if (!moved) {
+                    log.warn("Order archiving postponed: pending writes could not be flushed");
+                    return;
+                }
+                archive.invalidate(month);
+                log.info("Archived orders of {}: orders={}, items={}", month, orderIds.size(), itemIds.size());
+            } catch (Exception e) {
+                // The store still holds the month; the next run moves whatever is left
+                log.error("Failed to archive orders of {}: {}", month, e.getMessage());
+                return;
+            }
+        }
+    }
+}
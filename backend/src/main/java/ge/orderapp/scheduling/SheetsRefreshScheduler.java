@@ -0,0 +1,45 @@
+package ge.orderapp.scheduling;
+
+import ge.orderapp.repository.PersistenceSubscriber;
+import ge.orderapp.repository.SheetsClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads every tab from Google Sheets on a fixed interval, picking up edits made in the spreadsheet.
+ * <p>
+ * The reload runs inside {@link PersistenceSubscriber#runExclusive}, which first writes out everything
+ * pending, both the subscriber's per-row events and the client's queue. A reload that ran ahead of them
+ * would drop those rows from memory (customers added by a running sync, for one) and the next sync would
+ * append them again as duplicates. If the writes cannot be flushed, the refresh waits for the next round.
+ */
+@Component
+public class SheetsRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SheetsRefreshScheduler.class);
+
+    private final PersistenceSubscriber subscriber;
+
+    @Autowired(required = false)
+    private SheetsClient sheets;
+
+    public SheetsRefreshScheduler(PersistenceSubscriber subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-interval-seconds:300}000", initialDelay = 300000)
+    public void refresh() {
+        if (sheets == null) return;
+        log.info("Periodic refresh from Google Sheets...");
+        try {
+            if (!subscriber.runExclusive(sheets::loadAllTabs)) {
+                log.warn("Periodic refresh skipped: pending writes could not be flushed");
+            }
+        } catch (Exception e) {
+            log.error("Periodic refresh failed", e);
+        }
+    }
+}
@@ -29,21 +29,21 @@ public class AuthenticationService {
     public record LoginResult(String sessionId, UserDto user) {}
 
     public LoginResult login(String username, String password, String ip) {
-        if (!rateLimiter.isAllowed(ip)) {
-            log.warn("Rate limit exceeded for IP: {}", ip);
+        if (!rateLimiter.isAllowed(ip, username)) {
+            log.warn("Rate limit exceeded for IP: {} (username: {})", ip, username);
             throw new RateLimitException("Too many login attempts. Try again in 5 minutes.");
         }
 
         // Find user by username
         UserDto user = store.getUserByUsername(username);
         if (user == null) {
-            rateLimiter.recordFailure(ip);
+            rateLimiter.recordFailure(ip, username);
             log.warn("Login failed: user not found: {}", username);
             throw new BadRequestException("Invalid username or password");
         }
 
         if (!user.active()) {
-            rateLimiter.recordFailure(ip);
+            rateLimiter.recordFailure(ip, username);
             log.warn("Login failed: user deactivated: {}", username);
             throw new BadRequestException("Invalid username or password");
         }
@@ -51,13 +51,13 @@ public class AuthenticationService {
         // Verify password
         String storedHash = store.getUserPasswordHash(user.userId());
         if (storedHash == null || !passwordService.matches(password, storedHash)) {
-            rateLimiter.recordFailure(ip);
+            rateLimiter.recordFailure(ip, username);
             log.warn("Login failed: wrong password for user: {}", username);
             throw new BadRequestException("Invalid username or password");
         }
 
+        rateLimiter.recordSuccess(ip, username);
         String sessionId = sessionManager.createSession(user);
-        rateLimiter.reset(ip);
         log.info("User logged in: {} (role: {})", username, user.role());
         return new LoginResult(sessionId, user);
     }
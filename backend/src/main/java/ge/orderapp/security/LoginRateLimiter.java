@@ -1,52 +1,188 @@
 package ge.orderapp.security;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
 
+/**
+ * Failed-login limiter with fixed memory. Failures are counted in a ring of count-min sketches, one per
+ * slice of the window, so an IP scan cannot grow the heap and old slices simply get cleared.
+ * <p>
+ * Two keys are checked: (IP, username), limited to {@code max-attempts}, and the IP alone, limited to
+ * {@code max-attempts-per-ip} to stop one address from trying many usernames. Keeping the tight limit
+ * per username means colleagues behind the same office NAT do not lock each other out.
+ * <p>
+ * A successful login takes its (IP, username) failures back out of both keys, so users who mistyped and
+ * then got in do not use up their office's per-IP allowance.
+ * <p>
+ * A sketch only over-counts (on hash collisions), never under-counts, except that taking a key's failures
+ * back out can also remove a colliding key's share of a shared counter; with the default size a few
+ * thousand distinct keys per slice stay well below one extra count.
+ */
 @Component
 public class LoginRateLimiter {
 
+    private static final int SLICES = 5;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 4096; // power of two
+
     @Value("${app.security.login-rate.max-attempts:5}")
     private int maxAttempts;
 
+    @Value("${app.security.login-rate.max-attempts-per-ip:30}")
+    private int maxAttemptsPerIp;
+
     @Value("${app.security.login-rate.window-seconds:300}")
     private long windowSeconds;
 
-    private final ConcurrentHashMap<String, AttemptRecord> attempts = new ConcurrentHashMap<>();
+    private final Slice[] slices = new Slice[SLICES];
+    private final long seed;
+    private LongSupplier clock = System::nanoTime;
+    private long sliceNanos;
+
+    public LoginRateLimiter() {
+        seed = new SecureRandom().nextLong();
+        for (int i = 0; i < SLICES; i++) slices[i] = new Slice();
+    }
+
+    @PostConstruct
+    void init() {
+        sliceNanos = Math.max(1, TimeUnit.SECONDS.toNanos(windowSeconds) / SLICES);
+    }
+
+    public boolean isAllowed(String ip, String username) {
+        long current = currentSlice();
+        return estimate(hash(pairKey(ip, username)), current) < maxAttempts
+                && estimate(hash(ipKey(ip)), current) < maxAttemptsPerIp;
+    }
+
+    public void recordFailure(String ip, String username) {
+        Slice slice = sliceFor(currentSlice());
+        slice.add(hash(pairKey(ip, username)));
+        slice.add(hash(ipKey(ip)));
+    }
 
-    public boolean isAllowed(String ip) {
-        String key = normalizeIp(ip);
-        AttemptRecord record = attempts.get(key);
-        if (record == null) return true;
-        Instant now = Instant.now();
-        if (record.windowStart.plusSeconds(windowSeconds).isBefore(now)) {
-            attempts.remove(key);
-            return true;
+    /**
+     * After a successful login: subtracts the (IP, username) failures still in the window from both that
+     * key and the IP key. The IP keeps failures of other usernames.
+     */
+    public void recordSuccess(String ip, String username) {
+        long current = currentSlice();
+        long pair = hash(pairKey(ip, username));
+        long ipOnly = hash(ipKey(ip));
+        for (Slice slice : slices) {
+            long number = slice.number;
+            if (number <= current - SLICES || number > current) continue;
+            int failures = slice.estimate(pair);
+            if (failures > 0) {
+                slice.subtract(pair, failures);
+                slice.subtract(ipOnly, failures);
+            }
         }
-        return record.count < maxAttempts;
     }
 
-    public void recordFailure(String ip) {
-        String key = normalizeIp(ip);
-        attempts.compute(key, (k, existing) -> {
-            Instant now = Instant.now();
-            if (existing == null || existing.windowStart.plusSeconds(windowSeconds).isBefore(now)) {
-                return new AttemptRecord(now, 1);
+    /** Clears slices that have left the window, so counting never pays for it. */
+    @Scheduled(fixedDelayString = "${app.security.login-rate.window-seconds:300}000", initialDelay = 60000)
+    public void evictExpired() {
+        long current = currentSlice();
+        for (Slice slice : slices) {
+            synchronized (slice) {
+                long number = slice.number;
+                if (number != Long.MIN_VALUE && number <= current - SLICES) slice.clear(Long.MIN_VALUE);
             }
-            return new AttemptRecord(existing.windowStart, existing.count + 1);
-        });
+        }
+    }
+
+    private int estimate(long key, long current) {
+        int total = 0;
+        for (Slice slice : slices) {
+            long number = slice.number;
+            if (number > current - SLICES && number <= current) total += slice.estimate(key);
+        }
+        return total;
+    }
+
+    private Slice sliceFor(long number) {
+        Slice slice = slices[(int) Math.floorMod(number, (long) SLICES)];
+        if (slice.number != number) {
+            synchronized (slice) {
+                if (slice.number != number) slice.clear(number);
+            }
+        }
+        return slice;
     }
 
-    public void reset(String ip) {
-        attempts.remove(normalizeIp(ip));
+    private long currentSlice() {
+        return clock.getAsLong() / sliceNanos;
     }
 
-    private String normalizeIp(String ip) {
+    private static String ipKey(String ip) {
         return (ip == null || ip.isBlank()) ? "unknown" : ip.trim();
     }
 
-    private record AttemptRecord(Instant windowStart, int count) {}
+    private static String pairKey(String ip, String username) {
+        return ipKey(ip) + '\n' + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Seeded 64-bit hash (FNV-1a plus a final mix). Unlike {@link String#hashCode()}, colliding keys cannot
+     * be crafted offline, so nobody can pick a username that inflates someone else's counter.
+     */
+    private long hash(String key) {
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Row {@code row}'s counter index for a key hash, by double hashing the two halves. */
+    private static int bucket(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * WIDTH + ((h1 + row * h2) & (WIDTH - 1));
+    }
+
+    /** Count-min sketch for one slice of the window; {@code number} is the slice it currently counts. */
+    private final class Slice {
+        private final AtomicIntegerArray counts = new AtomicIntegerArray(DEPTH * WIDTH);
+        private volatile long number = Long.MIN_VALUE;
+
+        void add(long key) {
+            for (int row = 0; row < DEPTH; row++) {
+                counts.incrementAndGet(bucket(key, row));
+            }
+        }
+
+        /** Takes {@code amount} off each of the key's counters, never below zero. */
+        void subtract(long key, int amount) {
+            for (int row = 0; row < DEPTH; row++) {
+                counts.getAndUpdate(bucket(key, row), count -> Math.max(0, count - amount));
+            }
+        }
+
+        int estimate(long key) {
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counts.get(bucket(key, row)));
+            }
+            return min;
+        }
+
+        void clear(long newNumber) {
+            number = Long.MIN_VALUE;
+            for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+            number = newNumber;
+        }
+    }
 }
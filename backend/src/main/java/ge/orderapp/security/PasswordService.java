@@ -1,18 +1,123 @@
 package ge.orderapp.security;
 
+import ge.orderapp.exception.RateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt hashing and verification on a small dedicated pool of platform threads. BCrypt is CPU-bound
+ * by design; run inline on virtual threads, a burst of logins would occupy every carrier thread and
+ * stall unrelated requests. The calling (virtual) thread just parks while it waits.
+ * <p>
+ * The queue is bounded: when it is full the request fails fast with {@link RateLimitException} (429)
+ * rather than everyone waiting longer; so does a call still waiting after {@code timeout-ms}. Pool,
+ * queue and rejection metrics (both cases) are published when a MeterRegistry is available.
+ */
 @Component
 public class PasswordService {
 
+    private static final Logger log = LoggerFactory.getLogger(PasswordService.class);
+
     private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
 
+    @Value("${app.security.password.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.security.password.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ExecutorService pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("password-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        if (meterRegistry != null) {
+            pool = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password");
+            rejected = Counter.builder("app.password.rejected")
+                    .description("Password operations refused because the hashing queue was full or timed out")
+                    .register(meterRegistry);
+        }
+        executor = pool;
+        log.info("Password hashing pool started: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) executor.shutdown();
+    }
+
     public String hash(String rawPassword) {
-        return encoder.encode(rawPassword);
+        return run(() -> encoder.encode(rawPassword));
     }
 
     public boolean matches(String rawPassword, String encodedPassword) {
-        return encoder.matches(rawPassword, encodedPassword);
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        if (executor == null) {
+            // Not started as a bean (e.g. plain construction in a test): hash inline.
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue full, rejecting request");
+            throw busy();
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing took longer than {}ms, giving up", timeoutMs);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private RateLimitException busy() {
+        if (rejected != null) rejected.increment();
+        return new RateLimitException("Server is busy. Please try again in a moment.");
     }
 }
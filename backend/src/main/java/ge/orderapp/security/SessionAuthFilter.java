@@ -3,7 +3,6 @@ package ge.orderapp.security;
 import ge.orderapp.dto.response.UserDto;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
@@ -11,6 +10,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Enumeration;
 import java.util.Set;
 
 @Component
@@ -75,12 +75,37 @@ public class SessionAuthFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Reads SESSION_ID straight from the Cookie header(s) instead of {@link HttpServletRequest#getCookies()},
+     * which parses and allocates every cookie the browser sends on each request.
+     */
     private String extractSessionId(HttpServletRequest request) {
-        if (request.getCookies() == null) return null;
-        for (Cookie cookie : request.getCookies()) {
-            if (SESSION_COOKIE.equals(cookie.getName())) {
-                return cookie.getValue();
+        Enumeration<String> headers = request.getHeaders("Cookie");
+        if (headers == null) return null;
+        while (headers.hasMoreElements()) {
+            String sessionId = sessionIdFromCookieHeader(headers.nextElement());
+            if (sessionId != null) return sessionId;
+        }
+        return null;
+    }
+
+    static String sessionIdFromCookieHeader(String header) {
+        if (header == null) return null;
+        int length = header.length();
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && (header.charAt(pos) == ' ' || header.charAt(pos) == ';')) pos++;
+            int end = header.indexOf(';', pos);
+            if (end < 0) end = length;
+            if (header.startsWith(SESSION_COOKIE, pos) && pos + SESSION_COOKIE.length() < end
+                    && header.charAt(pos + SESSION_COOKIE.length()) == '=') {
+                String value = header.substring(pos + SESSION_COOKIE.length() + 1, end).trim();
+                if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value.isEmpty() ? null : value;
             }
+            pos = end + 1;
         }
         return null;
     }
@@ -0,0 +1,144 @@
+package ge.orderapp.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.dto.response.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Append-only session log, so sessions survive restarts. Each line is a JSON record, either
+ * {@code {"op":"C","id":..,"user":{..},"createdAt":..,"lastAccess":..}} (created) or
+ * {@code {"op":"R","id":..}} (revoked). Last-access times are not logged per request; they are
+ * captured by {@link #snapshot}, which rewrites the log as one "C" record per live session.
+ * <p>
+ * The file holds live session ids, so it is created owner-readable only where the filesystem allows.
+ */
+final class SessionLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionLog.class);
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    record Entry(String id, UserDto user, long createdAt, long lastAccess) {}
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+
+    SessionLog(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Replays the log and opens it for appending. Unreadable lines (e.g. a torn last write) are skipped. */
+    synchronized Collection<Entry> open() throws IOException {
+        Files.createDirectories(file.getParent());
+        Map<String, Entry> live = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        Map<String, Object> record = objectMapper.readValue(line, RECORD_TYPE);
+                        String id = (String) record.get("id");
+                        if ("R".equals(record.get("op"))) {
+                            live.remove(id);
+                        } else {
+                            live.put(id, new Entry(id, objectMapper.convertValue(record.get("user"), UserDto.class),
+                                    ((Number) record.get("createdAt")).longValue(),
+                                    ((Number) record.get("lastAccess")).longValue()));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Skipping unreadable session record in {}: {}", file.getFileName(), e.getMessage());
+                    }
+                }
+            }
+        }
+        writer = openWriter();
+        return live.values();
+    }
+
+    synchronized void created(Entry entry) {
+        write(createRecord(entry));
+    }
+
+    synchronized void revoked(String id) {
+        write(Map.of("op", "R", "id", id));
+    }
+
+    /**
+     * Replaces the log with one record per session in {@code live}. The supplier runs under the log's lock,
+     * so a session created concurrently is either in the snapshot or appended to the new log.
+     */
+    synchronized void snapshot(Supplier<Collection<Entry>> live) throws IOException {
+        if (writer == null) return;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            restrictToOwner(tmp);
+            for (Entry entry : live.get()) {
+                out.write(objectMapper.writeValueAsString(createRecord(entry)));
+                out.newLine();
+            }
+        }
+        writer.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = openWriter();
+    }
+
+    synchronized void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close session log {}: {}", file.getFileName(), e.getMessage());
+        }
+        writer = null;
+    }
+
+    private Map<String, Object> createRecord(Entry entry) {
+        return Map.of("op", "C", "id", entry.id(), "user", entry.user(),
+                "createdAt", entry.createdAt(), "lastAccess", entry.lastAccess());
+    }
+
+    private void write(Map<String, Object> record) {
+        if (writer == null) return;
+        try {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            // The session still works in memory; it just will not survive a restart.
+            log.error("Failed to write session log {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        boolean created = !Files.exists(file);
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (created) restrictToOwner(file);
+        return out;
+    }
+
+    private static void restrictToOwner(Path path) throws IOException {
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+}
@@ -1,45 +1,264 @@
 package ge.orderapp.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
 import ge.orderapp.dto.response.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
+/**
+ * In-memory sessions with an idle timeout (sliding, refreshed on use) and an absolute lifetime.
+ * Expired sessions are rejected on lookup and removed by a periodic sweep, so abandoned tablets and
+ * browsers do not accumulate. A userId index keeps per-user revocation proportional to that user's sessions.
+ * <p>
+ * Sessions hold the user's id plus a copy of their {@link UserDto} tagged with the store's users version.
+ * While that version is unchanged (the common case) a lookup returns the copy; after any user change the
+ * user is re-read once, so role changes and deactivation apply on the next request.
+ * <p>
+ * Unless {@code app.security.session.store-dir} is blank, sessions are also kept in a {@link SessionLog}
+ * that is replayed on startup (before the auth filter, which depends on this bean, serves anything),
+ * so a redeploy does not log everyone out.
+ */
 @Component
 public class SessionManager {
 
     private static final Logger log = LoggerFactory.getLogger(SessionManager.class);
-    private final ConcurrentHashMap<String, UserDto> sessions = new ConcurrentHashMap<>();
+    // Last-access writes are skipped within this window, so busy sessions do not write on every request
+    private static final long TOUCH_GRANULARITY_MS = 1_000;
+
+    @Value("${app.security.session.idle-timeout-minutes:720}")
+    private long idleTimeoutMinutes;
+
+    @Value("${app.security.session.absolute-timeout-hours:168}")
+    private long absoluteTimeoutHours;
+
+    @Value("${app.security.session.store-dir:./data/sessions}")
+    private String storeDir;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper;
+    private final InMemoryStore store;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> sessionIdsByUser = new ConcurrentHashMap<>();
+    private LongSupplier clock = System::currentTimeMillis;
+    private Counter idleEvictions;
+    private Counter absoluteEvictions;
+    private SessionLog sessionLog;
+
+    public SessionManager(ObjectMapper objectMapper, InMemoryStore store) {
+        this.objectMapper = objectMapper;
+        this.store = store;
+    }
+
+    @PostConstruct
+    public void init() {
+        registerMetrics();
+        restoreSessions();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotSessions();
+        if (sessionLog != null) sessionLog.close();
+    }
+
+    private void restoreSessions() {
+        if (storeDir == null || storeDir.isBlank()) return;
+        SessionLog opened = new SessionLog(Path.of(storeDir, "sessions.log"), objectMapper);
+        try {
+            long now = clock.getAsLong();
+            int expired = 0;
+            for (SessionLog.Entry entry : opened.open()) {
+                // Version -1 never matches, so the first use re-reads the user from the store.
+                Session session = new Session(entry.user(), -1, entry.createdAt(), entry.lastAccess());
+                if (expiry(session, now) != null) {
+                    expired++;
+                    continue;
+                }
+                sessions.put(entry.id(), session);
+                sessionIdsByUser.computeIfAbsent(entry.user().userId(), k -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+            sessionLog = opened;
+            log.info("Restored {} session(s) from {} (expired={})", sessions.size(), storeDir, expired);
+        } catch (IOException e) {
+            // Sessions still work in memory; users just log in again after the next restart.
+            log.error("Cannot open session store at {}, sessions will not survive restarts: {}", storeDir, e.getMessage());
+        }
+    }
+
+    private void registerMetrics() {
+        if (meterRegistry == null) return;
+        Gauge.builder("app.sessions.active", this, SessionManager::getActiveSessionCount)
+                .description("Sessions currently held in memory")
+                .register(meterRegistry);
+        Gauge.builder("app.sessions.users", sessionIdsByUser, ConcurrentHashMap::size)
+                .description("Distinct users with at least one session")
+                .register(meterRegistry);
+        idleEvictions = Counter.builder("app.sessions.evicted").tag("reason", "idle").register(meterRegistry);
+        absoluteEvictions = Counter.builder("app.sessions.evicted").tag("reason", "absolute").register(meterRegistry);
+    }
 
     public String createSession(UserDto user) {
         String sessionId = UUID.randomUUID().toString();
-        sessions.put(sessionId, user);
+        long now = clock.getAsLong();
+        // Publishing and logging under the user's index entry orders the record before any revocation of
+        // this user, so replaying the log never revives a session that was revoked.
+        sessionIdsByUser.compute(user.userId(), (userId, ids) -> {
+            Set<String> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            sessions.put(sessionId, new Session(user, store.getUsersVersion(), now, now));
+            if (sessionLog != null) sessionLog.created(new SessionLog.Entry(sessionId, user, now, now));
+            return updated;
+        });
         log.info("Session created for user: {}", user.username());
         return sessionId;
     }
 
     public UserDto getSession(String sessionId) {
         if (sessionId == null) return null;
-        return sessions.get(sessionId);
+        Session session = sessions.get(sessionId);
+        if (session == null) return null;
+        long now = clock.getAsLong();
+        if (expiry(session, now) != null) {
+            evict(sessionId, session, now);
+            return null;
+        }
+        if (now - session.lastAccess >= TOUCH_GRANULARITY_MS) {
+            session.lastAccess = now;
+        }
+        ResolvedUser resolved = session.resolved;
+        long usersVersion = store.getUsersVersion();
+        if (resolved.version() == usersVersion) return resolved.user();
+        return refreshUser(sessionId, session, resolved, usersVersion);
+    }
+
+    private UserDto refreshUser(String sessionId, Session session, ResolvedUser resolved, long usersVersion) {
+        UserDto current = store.getUser(session.userId);
+        if (current == null) {
+            // Users not loaded (yet, or mid-reload): keep the copy and look again next time.
+            return resolved.user();
+        }
+        if (!current.active()) {
+            removeSession(sessionId);
+            return null;
+        }
+        session.resolved = new ResolvedUser(current, usersVersion);
+        return current;
     }
 
     public void removeSession(String sessionId) {
         if (sessionId != null) {
-            UserDto removed = sessions.remove(sessionId);
+            Session removed = sessions.remove(sessionId);
             if (removed != null) {
-                log.info("Session removed for user: {}", removed.username());
+                unindex(removed.userId, sessionId);
+                if (sessionLog != null) sessionLog.revoked(sessionId);
+                log.info("Session removed for user: {}", removed.resolved.user().username());
             }
         }
     }
 
     public void removeAllSessionsForUser(String userId) {
-        sessions.entrySet().removeIf(entry -> entry.getValue().userId().equals(userId));
+        int[] removed = {0};
+        sessionIdsByUser.computeIfPresent(userId, (k, ids) -> {
+            for (String id : ids) {
+                sessions.remove(id);
+                if (sessionLog != null) sessionLog.revoked(id);
+            }
+            removed[0] = ids.size();
+            return null;
+        });
+        if (removed[0] > 0) log.info("Removed {} session(s) for user: {}", removed[0], userId);
     }
 
     public int getActiveSessionCount() {
         return sessions.size();
     }
+
+    @Scheduled(fixedDelayString = "${app.security.session.sweep-interval-seconds:60}000", initialDelay = 60000)
+    public void evictExpiredSessions() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (var entry : sessions.entrySet()) {
+            if (expiry(entry.getValue(), now) != null && evict(entry.getKey(), entry.getValue(), now)) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} expired session(s), {} active", evicted, sessions.size());
+        }
+    }
+
+    /** Rewrites the session log from memory, dropping expired and revoked sessions and saving last-access times. */
+    @Scheduled(fixedDelayString = "${app.security.session.snapshot-interval-seconds:300}000", initialDelay = 300000)
+    public void snapshotSessions() {
+        if (sessionLog == null) return;
+        try {
+            sessionLog.snapshot(() -> sessions.entrySet().stream()
+                    .map(e -> new SessionLog.Entry(e.getKey(), e.getValue().resolved.user(),
+                            e.getValue().createdAt, e.getValue().lastAccess))
+                    .toList());
+        } catch (IOException e) {
+            log.error("Failed to snapshot sessions to {}: {}", storeDir, e.getMessage());
+        }
+    }
+
+    /** {@code "idle"} or {@code "absolute"} when the session has expired at {@code now}, otherwise null. */
+    private String expiry(Session session, long now) {
+        if (now - session.createdAt >= absoluteTimeoutHours * 3_600_000L) return "absolute";
+        if (now - session.lastAccess >= idleTimeoutMinutes * 60_000L) return "idle";
+        return null;
+    }
+
+    private boolean evict(String sessionId, Session session, long now) {
+        String reason = expiry(session, now);
+        if (!sessions.remove(sessionId, session)) return false;
+        unindex(session.userId, sessionId);
+        Counter counter = "absolute".equals(reason) ? absoluteEvictions : idleEvictions;
+        if (counter != null) counter.increment();
+        log.debug("Session expired ({}) for user: {}", reason, session.resolved.user().username());
+        return true;
+    }
+
+    private void unindex(String userId, String sessionId) {
+        sessionIdsByUser.computeIfPresent(userId, (k, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /** A user copy and the store users version it was read at. */
+    private record ResolvedUser(UserDto user, long version) {}
+
+    private static final class Session {
+        final String userId;
+        final long createdAt;
+        volatile ResolvedUser resolved;
+        volatile long lastAccess;
+
+        Session(UserDto user, long usersVersion, long createdAt, long lastAccess) {
+            this.userId = user.userId();
+            this.resolved = new ResolvedUser(user, usersVersion);
+            this.createdAt = createdAt;
+            this.lastAccess = lastAccess;
+        }
+    }
 }
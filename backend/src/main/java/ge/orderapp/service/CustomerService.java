@@ -7,10 +7,8 @@ import ge.orderapp.dto.response.CustomerDto;
 import ge.orderapp.dto.response.MyCustomerDto;
 import ge.orderapp.exception.BadRequestException;
 import ge.orderapp.exception.NotFoundException;
-import ge.orderapp.repository.SheetsClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -24,9 +22,6 @@ public class CustomerService {
 
     private final InMemoryStore store;
 
-    @Autowired(required = false)
-    private SheetsClient sheetsClient;
-
     public CustomerService(InMemoryStore store) {
         this.store = store;
     }
@@ -64,13 +59,6 @@ public class CustomerService {
 
         store.putCustomer(customer);
 
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("Customers", List.of(
-                    customer.customerId(), customer.name(), customer.tin(),
-                    customer.frequencyScore(), customer.addedBy(),
-                    "TRUE", customer.createdAt(), customer.updatedAt()));
-        }
-
         log.info("Customer created: {} ({})", customer.name(), customer.customerId());
         return customer;
     }
@@ -93,17 +81,6 @@ public class CustomerService {
 
         store.putCustomer(updated);
 
-        if (sheetsClient != null) {
-            int rowIndex = sheetsClient.findRowIndex("Customers", id);
-            if (rowIndex > 0) {
-                sheetsClient.updateRow("Customers", rowIndex, List.of(
-                        updated.customerId(), updated.name(), updated.tin(),
-                        updated.frequencyScore(), updated.addedBy(),
-                        updated.active() ? "TRUE" : "FALSE",
-                        updated.createdAt(), updated.updatedAt()));
-            }
-        }
-
         return updated;
     }
 
@@ -129,12 +106,7 @@ public class CustomerService {
         }
         if (store.getBoards(customerId).contains(sanitized)) return;
 
-        store.addBoard(customerId, sanitized);
-
-        if (sheetsClient != null) {
-            String now = Instant.now().toString();
-            sheetsClient.appendRow("Customer_Boards", List.of(customerId, sanitized, now, addedBy));
-        }
+        store.addBoard(customerId, sanitized, addedBy);
 
         log.info("Board added: {} for customer {}", sanitized, customerId);
     }
@@ -173,11 +145,6 @@ public class CustomerService {
         MyCustomerDto mc = new MyCustomerDto(managerId, finalCustomerName, normalizedCustomerId, now);
         store.addMyCustomer(mc);
 
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("My_Customers", List.of(
-                    mc.managerId(), mc.customerName(), mc.customerId(), mc.addedAt()));
-        }
-
         log.info("My customer added: {} for manager {}", customerName, managerId);
     }
 
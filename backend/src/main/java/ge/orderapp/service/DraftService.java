@@ -1,6 +1,5 @@
 package ge.orderapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import ge.orderapp.cache.InMemoryStore;
 import ge.orderapp.dto.request.CopyDraftRequest;
 import ge.orderapp.dto.request.CreateDraftRequest;
@@ -9,10 +8,8 @@ import ge.orderapp.dto.response.DraftItemDto;
 import ge.orderapp.exception.BadRequestException;
 import ge.orderapp.exception.ForbiddenException;
 import ge.orderapp.exception.NotFoundException;
-import ge.orderapp.repository.SheetsClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -31,14 +28,9 @@ public class DraftService {
     private String weekdayNamesConfig;
 
     private final InMemoryStore store;
-    private final ObjectMapper objectMapper;
 
-    @Autowired(required = false)
-    private SheetsClient sheetsClient;
-
-    public DraftService(InMemoryStore store, ObjectMapper objectMapper) {
+    public DraftService(InMemoryStore store) {
         this.store = store;
-        this.objectMapper = objectMapper;
     }
 
     public List<DraftDto> listDrafts(String managerId) {
@@ -62,13 +54,6 @@ public class DraftService {
         DraftDto draft = new DraftDto(draftId, managerId, sanitize(request.name()), items, now, now);
         store.putDraft(draft);
 
-        if (sheetsClient != null) {
-            String itemsJson = serializeItems(items);
-            sheetsClient.appendRow("Drafts", List.of(
-                    draft.draftId(), draft.managerId(), draft.name(),
-                    itemsJson, draft.createdAt(), draft.updatedAt()));
-        }
-
         log.info("Draft created: {} ({})", draft.name(), draft.draftId());
         return draft;
     }
@@ -86,16 +71,6 @@ public class DraftService {
         DraftDto updated = new DraftDto(draftId, managerId, sanitize(request.name()), items, existing.createdAt(), now);
         store.putDraft(updated);
 
-        if (sheetsClient != null) {
-            int rowIndex = sheetsClient.findRowIndex("Drafts", draftId);
-            if (rowIndex > 0) {
-                String itemsJson = serializeItems(items);
-                sheetsClient.updateRow("Drafts", rowIndex, List.of(
-                        updated.draftId(), updated.managerId(), updated.name(),
-                        itemsJson, updated.createdAt(), updated.updatedAt()));
-            }
-        }
-
         return updated;
     }
 
@@ -129,26 +104,10 @@ public class DraftService {
         DraftDto copy = new DraftDto(newDraftId, managerId, name, source.items(), now, now);
         store.putDraft(copy);
 
-        if (sheetsClient != null) {
-            String itemsJson = serializeItems(source.items());
-            sheetsClient.appendRow("Drafts", List.of(
-                    copy.draftId(), copy.managerId(), copy.name(),
-                    itemsJson, copy.createdAt(), copy.updatedAt()));
-        }
-
         log.info("Draft copied: {} -> {} for manager {}", draftId, newDraftId, managerId);
         return copy;
     }
 
-    private String serializeItems(List<DraftItemDto> items) {
-        try {
-            return objectMapper.writeValueAsString(items);
-        } catch (Exception e) {
-            log.error("Failed to serialize draft items", e);
-            return "[]";
-        }
-    }
-
     private String sanitize(String input) {
         if (input == null) return null;
         return input.replaceAll("[\\x00-\\x1F\\x7F]", "").trim();
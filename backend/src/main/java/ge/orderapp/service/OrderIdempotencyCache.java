@@ -0,0 +1,107 @@
+package ge.orderapp.service;
+
+import ge.orderapp.dto.request.CreateOrderRequest;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.exception.BadRequestException;
+import ge.orderapp.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Recent order submissions by (manager, Idempotency-Key). A resubmitted form gets back the order its first
+ * attempt created, instead of a second order with its own Sheets writes, Telegram message and frequency
+ * score bumps. A retry arriving while the first attempt is still running waits for it.
+ * <p>
+ * Entries live for {@code ttl-seconds}, and at most {@code max-entries} are kept, oldest dropped first. A
+ * failed attempt leaves no entry, so the same key can be retried. Reusing a key for a different order is a
+ * conflict.
+ */
+@Component
+public class OrderIdempotencyCache {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Value("${app.orders.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.orders.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    private LongSupplier clock = System::nanoTime;
+
+    private record Entry(CreateOrderRequest request, CompletableFuture<OrderDto> result, long createdAt) {}
+
+    // Insertion order is age order; guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /** Runs {@code create} once per (user, key); repeats return its order. */
+    public OrderDto submit(String userId, String key, CreateOrderRequest request, Supplier<OrderDto> create) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = userId + '\n' + key;
+        Entry mine = new Entry(request, new CompletableFuture<>(), clock.getAsLong());
+        Entry existing;
+        synchronized (entries) {
+            evictExpired(mine.createdAt());
+            existing = entries.putIfAbsent(cacheKey, mine);
+            if (existing == null) trim();
+        }
+
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                throw new ConflictException("Idempotency-Key was already used for a different order");
+            }
+            try {
+                return existing.result().join();
+            } catch (CompletionException e) {
+                // The first attempt failed and dropped its entry; this retry reports the same failure
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+
+        try {
+            OrderDto order = create.get();
+            mine.result().complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(cacheKey, mine);
+            }
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(long now) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().createdAt() < ttlNanos) break;
+            it.remove();
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > Math.max(1, maxEntries) && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
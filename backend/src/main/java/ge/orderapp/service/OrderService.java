@@ -1,12 +1,13 @@
 package ge.orderapp.service;
 
 import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.cache.OrderArchive;
 import ge.orderapp.dto.request.CreateOrderRequest;
 import ge.orderapp.dto.response.OrderDto;
 import ge.orderapp.dto.response.OrderItemDto;
 import ge.orderapp.dto.response.UserDto;
+import ge.orderapp.exception.ConflictException;
 import ge.orderapp.exception.NotFoundException;
-import ge.orderapp.repository.SheetsClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +16,17 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -31,17 +38,32 @@ public class OrderService {
     private final InMemoryStore store;
     private final TelegramService telegramService;
 
-    @Value("${app.time-zone:Asia/Tbilisi}")
-    private String appTimeZone;
+    @Autowired(required = false)
+    private OrderArchive archive;
 
     @Autowired(required = false)
-    private SheetsClient sheetsClient;
+    private OrderIdempotencyCache idempotency;
+
+    @Value("${app.time-zone:Asia/Tbilisi}")
+    private String appTimeZone;
 
     public OrderService(InMemoryStore store, TelegramService telegramService) {
         this.store = store;
         this.telegramService = telegramService;
     }
 
+    /**
+     * Creates the order once per {@code idempotencyKey}: a retry with the same key returns the order
+     * already created, with no further writes, Telegram message or score changes.
+     */
+    public OrderDto createOrder(CreateOrderRequest request, UserDto currentUser, String idempotencyKey) {
+        if (idempotency == null || idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createOrder(request, currentUser);
+        }
+        return idempotency.submit(currentUser.userId(), idempotencyKey.trim(), request,
+                () -> createOrder(request, currentUser));
+    }
+
     public OrderDto createOrder(CreateOrderRequest request, UserDto currentUser) {
         String now = Instant.now().toString();
         String orderId = UUID.randomUUID().toString();
@@ -60,16 +82,6 @@ public class OrderService {
                     now,
                     board);
             items.add(item);
-            store.putOrderItem(item);
-
-            if (sheetsClient != null) {
-                sheetsClient.appendRow("Order_Items", List.of(
-                        item.itemId(), item.orderId(), item.customerName(),
-                        item.customerId() != null ? item.customerId() : "",
-                        item.comment() != null ? item.comment() : "",
-                        item.createdAt(),
-                        board != null ? board : ""));
-            }
         }
 
         // Send to Telegram first if requested, so we know actual result
@@ -93,16 +105,8 @@ public class OrderService {
         OrderDto order = new OrderDto(
                 orderId, currentUser.userId(), currentUser.displayName(),
                 date, status, telegramSent, telegramSentAt, items.size(), now, items);
-        store.putOrder(order);
-
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("Orders", List.of(
-                    order.orderId(), order.managerId(), order.managerName(),
-                    order.date(), order.status(),
-                    telegramSent ? "TRUE" : "FALSE",
-                    telegramSentAt,
-                    order.itemCount(), order.createdAt()));
-        }
+        // Order and items become visible together
+        store.commitOrder(order, items);
 
         // Increment frequency scores
         for (OrderItemDto item : items) {
@@ -116,22 +120,55 @@ public class OrderService {
     }
 
     public List<OrderDto> getOrders(String date, String dateFrom, String dateTo, String managerId, int page, int size) {
-        return store.getOrders(date, dateFrom, dateTo, managerId, page, size);
+        if (archive == null || !archive.reaches(date, dateFrom, dateTo)) {
+            return store.getOrders(date, dateFrom, dateTo, managerId, page, size);
+        }
+        List<OrderDto> hot = store.getOrders(date, dateFrom, dateTo, managerId, 0, Integer.MAX_VALUE);
+        int start = page * size;
+        // Archived orders are older than any order of a hot month, so a page ending on one needs no archive read
+        if (size > 0 && start + size <= hot.size()) {
+            YearMonth lastOnPage = archive.monthOf(hot.get(start + size - 1));
+            if (lastOnPage != null && !lastOnPage.isBefore(archive.hotCutoff())) {
+                return hot.subList(start, start + size);
+            }
+        }
+        // The page reaches archived months: page over hot and archived orders together
+        Map<String, OrderDto> merged = new LinkedHashMap<>();
+        archive.getOrders(date, dateFrom, dateTo, managerId).forEach(o -> merged.put(o.orderId(), o));
+        hot.forEach(o -> merged.put(o.orderId(), o));
+        List<OrderDto> all = new ArrayList<>(merged.values());
+        all.sort(Comparator.comparing(OrderDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        if (start >= all.size()) return List.of();
+        return all.subList(start, Math.min(start + size, all.size()));
     }
 
     public OrderDto getOrderById(String id) {
-        OrderDto order = store.getOrder(id);
-        if (order == null) throw new NotFoundException("Order not found: " + id);
-        List<OrderItemDto> items = store.getOrderItems(id);
+        InMemoryStore.OrderView view = store.orderView();
+        OrderDto order = view.getOrder(id);
+        List<OrderItemDto> items;
+        if (order != null) {
+            items = view.getOrderItems(id);
+        } else {
+            order = archive != null ? archive.findOrder(id) : null;
+            if (order == null) throw new NotFoundException("Order not found: " + id);
+            items = order.items();
+        }
         return new OrderDto(
                 order.orderId(), order.managerId(), order.managerName(),
                 order.date(), order.status(), order.telegramSent(),
                 order.telegramSentAt(), order.itemCount(), order.createdAt(), items);
     }
 
+    /** Archived orders are read-only: changing one of their items is a conflict, not a missing order. */
     public OrderItemDto updateOrderItemBoard(String orderId, String itemId, String board) {
         OrderDto order = store.getOrder(orderId);
-        if (order == null) throw new NotFoundException("Order not found: " + orderId);
+        if (order == null) {
+            if (archive != null && archive.findOrder(orderId) != null) {
+                throw new ConflictException("Order " + orderId + " is archived and can no longer be changed");
+            }
+            throw new NotFoundException("Order not found: " + orderId);
+        }
         OrderItemDto existing = store.getOrderItem(itemId);
         if (existing == null || !orderId.equals(existing.orderId())) {
             throw new NotFoundException("Order item not found: " + itemId);
@@ -140,31 +177,32 @@ public class OrderService {
         String sanitizedBoard = sanitize(board);
         store.updateOrderItemBoard(itemId, sanitizedBoard);
 
-        if (sheetsClient != null) {
-            int rowIndex = sheetsClient.findRowIndex("Order_Items", itemId);
-            if (rowIndex > 0) {
-                sheetsClient.updateRow("Order_Items", rowIndex, List.of(
-                        existing.itemId(), existing.orderId(), existing.customerName(),
-                        existing.customerId() != null ? existing.customerId() : "",
-                        existing.comment() != null ? existing.comment() : "",
-                        existing.createdAt(),
-                        sanitizedBoard != null ? sanitizedBoard : ""));
-            }
-        }
-
         return store.getOrderItem(itemId);
     }
 
     public String exportCsv(String dateFrom, String dateTo, String managerId) {
-        List<OrderDto> allOrders = store.getOrders(null, null, null, managerId, 0, Integer.MAX_VALUE);
+        // One view for the whole export, so orders committed meanwhile are either fully in or out
+        InMemoryStore.OrderView view = store.orderView();
+        List<OrderDto> allOrders = view.getOrders(null, null, null, managerId, 0, Integer.MAX_VALUE);
+        List<OrderDto> exported = new ArrayList<>(allOrders.stream()
+                .filter(order -> dateFrom == null || dateFrom.isBlank() || order.date().compareTo(dateFrom) >= 0)
+                .filter(order -> dateTo == null || dateTo.isBlank() || order.date().compareTo(dateTo) <= 0)
+                .toList());
+        Map<String, List<OrderItemDto>> itemsByOrder = new HashMap<>(view.getOrderItemsByOrder(
+                exported.stream().map(OrderDto::orderId).collect(Collectors.toSet())));
+        if (archive != null && archive.reaches(null, dateFrom, dateTo)) {
+            // Archived months are older than every hot order, so they go after them
+            for (OrderDto order : archive.getOrdersWithItems(dateFrom, dateTo, managerId)) {
+                if (itemsByOrder.containsKey(order.orderId()) || view.getOrder(order.orderId()) != null) continue;
+                exported.add(order);
+                itemsByOrder.put(order.orderId(), order.items());
+            }
+        }
         StringBuilder csv = new StringBuilder();
         csv.append("Order ID,Manager,Order Date,Order Time,Status,Customer,Comment,Board\n");
 
-        for (OrderDto order : allOrders) {
-            if (dateFrom != null && !dateFrom.isBlank() && order.date().compareTo(dateFrom) < 0) continue;
-            if (dateTo != null && !dateTo.isBlank() && order.date().compareTo(dateTo) > 0) continue;
-
-            List<OrderItemDto> items = store.getOrderItems(order.orderId());
+        for (OrderDto order : exported) {
+            List<OrderItemDto> items = itemsByOrder.getOrDefault(order.orderId(), List.of());
             for (OrderItemDto item : items) {
                 csv.append(escapeCsv(order.orderId())).append(",");
                 csv.append(escapeCsv(order.managerName())).append(",");
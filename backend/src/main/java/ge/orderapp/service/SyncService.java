@@ -6,7 +6,7 @@ import ge.orderapp.dto.response.SyncStateDto;
 import ge.orderapp.exception.ConflictException;
 import ge.orderapp.integration.rsge.CustomerExtractor;
 import ge.orderapp.integration.rsge.RsGeSoapClient;
-import ge.orderapp.repository.SheetsClient;
+import ge.orderapp.repository.PersistenceBackend;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,7 +42,7 @@ public class SyncService {
     private String syncSourceUser;
 
     @Autowired(required = false)
-    private SheetsClient sheetsClient;
+    private PersistenceBackend persistence;
 
     public SyncService(InMemoryStore store, RsGeSoapClient rsGeSoapClient, CustomerExtractor customerExtractor) {
         this.store = store;
@@ -137,8 +137,8 @@ public class SyncService {
     }
 
     private void executeSync(String syncId, String type, LocalDate startDate, LocalDate endDate) {
-        log.info("Starting sync: syncId={}, type={}, startDate={}, endDate={}, sheetsEnabled={}",
-                syncId, type, startDate, endDate, sheetsClient != null);
+        log.info("Starting sync: syncId={}, type={}, startDate={}, endDate={}, persistenceEnabled={}",
+                syncId, type, startDate, endDate, persistence != null);
 
         // Fetch BOTH sale waybills (get_waybills) and purchase waybills (get_buyer_waybills)
         // to capture all counterparties — matching Tasty ERP's dual-fetch approach
@@ -178,12 +178,6 @@ public class SyncService {
                         customerId, ec.name(), ec.tin(), 0,
                         syncSourceUser, true, now, now, null);
                 store.putCustomer(newCustomer);
-
-                if (sheetsClient != null) {
-                    sheetsClient.appendRow("Customers", List.of(
-                            customerId, ec.name(), ec.tin(), 0,
-                            syncSourceUser, "TRUE", now, now));
-                }
                 added++;
             }
         }
@@ -199,14 +193,6 @@ public class SyncService {
                 "", Instant.now().toString());
         store.updateSyncState(completed);
 
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("Sync_State", List.of(
-                    completed.syncId(), completed.syncType(), completed.startDate(),
-                    completed.endDate(), completed.status(), completed.customersFound(),
-                    completed.customersAdded(), completed.errorMessage(),
-                    completed.startedAt(), completed.completedAt()));
-        }
-
         log.info("Sync completed: syncId={}, found={}, added={}", syncId, extracted.size(), added);
     }
 
@@ -6,12 +6,10 @@ import ge.orderapp.dto.request.UpdateUserRequest;
 import ge.orderapp.dto.response.UserDto;
 import ge.orderapp.exception.BadRequestException;
 import ge.orderapp.exception.NotFoundException;
-import ge.orderapp.repository.SheetsClient;
 import ge.orderapp.security.PasswordService;
 import ge.orderapp.security.SessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -29,9 +27,6 @@ public class UserService {
     private final PasswordService passwordService;
     private final SessionManager sessionManager;
 
-    @Autowired(required = false)
-    private SheetsClient sheetsClient;
-
     public UserService(InMemoryStore store, PasswordService passwordService, SessionManager sessionManager) {
         this.store = store;
         this.passwordService = passwordService;
@@ -64,13 +59,6 @@ public class UserService {
 
         store.putUser(user, passwordHash);
 
-        if (sheetsClient != null) {
-            sheetsClient.appendRow("Users", List.of(
-                    user.userId(), user.username(), passwordHash,
-                    user.displayName(), user.role(),
-                    "TRUE", user.createdAt()));
-        }
-
         log.info("User created: {} ({})", user.username(), user.role());
         return user;
     }
@@ -93,18 +81,6 @@ public class UserService {
 
         store.putUser(updated, null);
 
-        if (sheetsClient != null) {
-            int rowIndex = sheetsClient.findRowIndex("Users", userId);
-            if (rowIndex > 0) {
-                String passwordHash = store.getUserPasswordHash(userId);
-                sheetsClient.updateRow("Users", rowIndex, List.of(
-                        updated.userId(), updated.username(), passwordHash != null ? passwordHash : "",
-                        updated.displayName(), updated.role(),
-                        updated.active() ? "TRUE" : "FALSE",
-                        updated.createdAt()));
-            }
-        }
-
         // If deactivated, remove sessions
         if (!updated.active()) {
             sessionManager.removeAllSessionsForUser(userId);
@@ -120,17 +96,6 @@ public class UserService {
         String passwordHash = passwordService.hash(newPassword);
         store.putUser(existing, passwordHash);
 
-        if (sheetsClient != null) {
-            int rowIndex = sheetsClient.findRowIndex("Users", userId);
-            if (rowIndex > 0) {
-                sheetsClient.updateRow("Users", rowIndex, List.of(
-                        existing.userId(), existing.username(), passwordHash,
-                        existing.displayName(), existing.role(),
-                        existing.active() ? "TRUE" : "FALSE",
-                        existing.createdAt()));
-            }
-        }
-
         // Invalidate sessions to force re-login
         sessionManager.removeAllSessionsForUser(userId);
         log.info("Password changed for user: {}", existing.username());
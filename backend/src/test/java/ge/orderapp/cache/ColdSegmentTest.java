@@ -0,0 +1,52 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void dateRangeReadsOnlyTheMatchingOrders() throws Exception {
+        Path file = dir.resolve("orders-2024-02.seg");
+        ColdSegment.write(file, List.of(order("o3", "2024-02-20"), order("o1", "2024-02-01"), order("o2", "2024-02-10")),
+                Map.of("o2", List.of(
+                        new OrderItemDto("i1", "o2", "შპს თასთი", "c1", "ორი ყუთი", "2024-02-10T08:00:00Z", null),
+                        new OrderItemDto("i2", "o2", "Customer", "c2", "", "2024-02-10T08:00:00Z", "B1"))));
+        ColdSegment segment = ColdSegment.open(file);
+
+        List<String> ids = new ArrayList<>();
+        segment.forEach(LocalDate.parse("2024-02-05"), LocalDate.parse("2024-02-20"), false, o -> ids.add(o.orderId()));
+        assertEquals(List.of("o2", "o3"), ids);
+
+        List<OrderDto> all = new ArrayList<>();
+        segment.forEach(null, null, true, all::add);
+        assertEquals(3, all.size());
+        assertEquals(List.of(), all.get(0).items());
+
+        OrderDto found = segment.find("o2");
+        assertEquals(order("o2", "2024-02-10").managerName(), found.managerName());
+        assertEquals("შპს თასთი", found.items().get(0).customerName());
+        assertEquals("ორი ყუთი", found.items().get(0).comment());
+        assertNull(found.items().get(0).board());
+        assertEquals("B1", found.items().get(1).board());
+        assertNull(segment.find("missing"));
+    }
+
+    private static OrderDto order(String id, String date) {
+        return new OrderDto(id, "m1", "მენეჯერი", date, "SENT", true, date + "T08:00:05Z", 2,
+                date + "T08:00:00Z", null);
+    }
+}
@@ -0,0 +1,148 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.CustomerDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CustomerTableTest {
+
+    @Test
+    void storedValuesReadBackUnchanged() {
+        CustomerTable table = new CustomerTable(1);
+        CustomerDto iso = new CustomerDto("c1", "შპს თასთი", "404-476-988", 3, "rsge_sync", true,
+                "2026-01-05T09:15:30.123456789Z", "2026-02-01T00:00:00Z", null);
+        CustomerDto legacy = new CustomerDto("c2", "Bakhusi", null, 0, "u1", false, "now", "", null);
+        for (int i = 0; i < 40; i++) {
+            table.put(new CustomerDto("x" + i, "Filler " + i, String.valueOf(i), i, "rsge_sync", true, null, null, null));
+        }
+        table.put(iso);
+        table.put(legacy);
+
+        assertEquals(iso, table.get("c1"));
+        assertEquals(legacy, table.get("c2"));
+        assertEquals(iso, table.getByTin("404476988"));
+        assertEquals(42, table.size());
+    }
+
+    @Test
+    void replacingTinMovesTheIndexAndScoreBumpsAreVisible() {
+        CustomerTable table = new CustomerTable(0);
+        table.put(new CustomerDto("c1", "A", "111", 0, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c1", "A", "222", 0, "u1", true, "t", "t", null));
+        table.incrementScore("c1");
+
+        assertNull(table.getByTin("111"));
+        assertEquals(1, table.getByTin("222").frequencyScore());
+    }
+
+    @Test
+    void searchPagesOverBoardRowsWithoutBuildingTheRest() {
+        CustomerTable table = new CustomerTable(0);
+        table.put(new CustomerDto("c1", "Alpha", "1", 5, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c2", "Beta", "2", 9, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c3", "Gamma", "3", 1, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c4", "Delta", "4", 99, "u1", false, "t", "t", null));
+        Map<String, List<String>> boards = Map.of("c2", List.of("b1", "b2", "b3"));
+
+        List<CustomerDto> page = table.search(null, "m1", 0, () -> Set.of("c3"), false, 2, 3,
+                id -> boards.getOrDefault(id, List.of()));
+
+        // Order: c3 (mine), c2 x3 boards (score 9), c1 (score 5); c4 is inactive.
+        assertEquals(List.of("c2:b2", "c2:b3", "c1:null"),
+                page.stream().map(c -> c.customerId() + ":" + c.board()).toList());
+    }
+
+    @Test
+    void cachedRankingFollowsScoreBumpsAndMyCustomerChanges() {
+        CustomerTable table = new CustomerTable(0);
+        table.put(new CustomerDto("c1", "Alpha", "1", 5, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c2", "Beta", "2", 5, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c3", "Gamma", "3", 4, "u1", true, "t", "t", null));
+        AtomicInteger myLookups = new AtomicInteger();
+        Supplier<Set<String>> mine = () -> {
+            myLookups.incrementAndGet();
+            return Set.of("c3");
+        };
+
+        assertEquals(List.of("c3", "c1", "c2"), ids(table.search(null, "m1", 1, mine, false, 0, 10, id -> List.of())));
+        assertEquals(List.of("c3"), ids(table.search("", "m1", 1, mine, true, 0, 10, id -> List.of())));
+        assertEquals(1, myLookups.get());
+
+        table.incrementScore("c2");
+        assertEquals(List.of("c3", "c2", "c1"), ids(table.search(null, "m1", 1, mine, false, 0, 10, id -> List.of())));
+        table.incrementScore("c2"); // already first among the others: nothing moves
+        table.incrementScore("c3");
+        assertEquals(List.of("c3", "c2", "c1"), ids(table.search(null, "m1", 1, mine, false, 0, 10, id -> List.of())));
+        // Score bumps patch the cached view instead of rebuilding it from the "my" set
+        assertEquals(1, myLookups.get());
+        assertEquals(List.of("c2", "c1", "c3"), ids(table.top(10)));
+        assertEquals(List.of("c2", "c1", "c3"), ids(table.search(null, "m2", 1, Set::of, false, 0, 10, id -> List.of())));
+        for (int i = 0; i < 3; i++) table.incrementScore("c3");
+        assertEquals(List.of("c3", "c2", "c1"), ids(table.search(null, "m2", 1, Set::of, false, 0, 10, id -> List.of())));
+        assertEquals(List.of("c3", "c2", "c1"), ids(table.search(null, "m1", 1, mine, false, 0, 10, id -> List.of())));
+
+        Supplier<Set<String>> mineAfterChange = () -> Set.of("c1");
+        assertEquals(List.of("c1", "c3", "c2"), ids(table.search(null, "m1", 2, mineAfterChange, false, 0, 10, id -> List.of())));
+        assertEquals(List.of("c1"), ids(table.search("alp", "m1", 2, mineAfterChange, false, 0, 10, id -> List.of())));
+    }
+
+    @Test
+    void concurrentScoreBumpsLeaveTheRankingSorted() throws Exception {
+        CustomerTable table = new CustomerTable(0);
+        for (int i = 0; i < 40; i++) {
+            table.put(new CustomerDto("c" + i, String.format("Customer %02d", i), String.valueOf(i), 0, "u1", true, "t", "t", null));
+        }
+        Supplier<Set<String>> mine = () -> Set.of("c2", "c4");
+        table.top(40);
+        table.search(null, "m1", 1, mine, false, 0, 40, id -> List.of());
+
+        // A misplaced slot is repaired by its own next bump, so check after many short bursts
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int round = 0; round < 300; round++) {
+                CyclicBarrier start = new CyclicBarrier(8);
+                List<Future<?>> bursts = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    bursts.add(executor.submit(() -> {
+                        start.await();
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < 4; i++) table.incrementScore("c" + random.nextInt(6));
+                        return null;
+                    }));
+                }
+                for (Future<?> burst : bursts) burst.get();
+                assertRankedByScoreThenName(table, mine);
+            }
+        }
+    }
+
+    private static void assertRankedByScoreThenName(CustomerTable table, Supplier<Set<String>> mine) {
+        List<CustomerDto> expected = new ArrayList<>(table.top(40));
+        expected.sort(Comparator.comparingInt(CustomerDto::frequencyScore).reversed().thenComparing(CustomerDto::name));
+        assertEquals(ids(expected), ids(table.top(40)));
+
+        Set<String> mineIds = mine.get();
+        List<String> mineFirst = new ArrayList<>();
+        expected.stream().map(CustomerDto::customerId).filter(mineIds::contains).forEach(mineFirst::add);
+        expected.stream().map(CustomerDto::customerId).filter(id -> !mineIds.contains(id)).forEach(mineFirst::add);
+        assertEquals(mineFirst, ids(table.search(null, "m1", 1, mine, false, 0, 40, id -> List.of())));
+    }
+
+    private static List<String> ids(List<CustomerDto> customers) {
+        return customers.stream().map(CustomerDto::customerId).toList();
+    }
+}
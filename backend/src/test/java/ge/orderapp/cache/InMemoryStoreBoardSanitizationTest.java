@@ -6,9 +6,13 @@ import ge.orderapp.dto.response.OrderItemDto;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class InMemoryStoreBoardSanitizationTest {
 
@@ -27,6 +31,29 @@ class InMemoryStoreBoardSanitizationTest {
         assertEquals("საბურთალო", customers.get(0).board());
     }
 
+    @Test
+    void boardsAreDeduplicatedAndSearchRowsFollowBoardAndScoreChanges() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.putCustomer(new CustomerDto("c1", "Alpha", "123", 0, "admin", true, "now", "now", null));
+        store.loadCustomerBoards(List.of(List.of("c1", " ვაკე "), List.of("c1", "ვაკე"), List.of("c1", "დიღომი")));
+        assertEquals(List.of("ვაკე", "დიღომი"), store.getBoards("c1"));
+        assertSame(store.searchCustomers(null, null, "all", 0, 20).get(0),
+                store.searchCustomers(null, null, "all", 0, 20).get(0));
+
+        store.addBoard("c1", "ვაკე");
+        store.addBoard("c1", "საბურთალო");
+        store.incrementFrequencyScore("c1");
+        List<CustomerDto> rows = store.searchCustomers(null, null, "all", 0, 20);
+        assertEquals(List.of("ვაკე", "დიღომი", "საბურთალო"), rows.stream().map(CustomerDto::board).toList());
+        assertEquals(1, rows.get(0).frequencyScore());
+
+        assertTrue(store.removeBoard("c1", "ვაკე"));
+        assertTrue(store.removeBoard("c1", "დიღომი"));
+        assertTrue(store.removeBoard("c1", "საბურთალო"));
+        assertFalse(store.removeBoard("c1", "საბურთალო"));
+        assertNull(store.searchCustomers(null, null, "all", 0, 20).get(0).board());
+    }
+
     @Test
     void formulaErrorBoardsDoNotAutoFillOrderItems() {
         InMemoryStore store = new InMemoryStore(new ObjectMapper());
@@ -37,4 +64,22 @@ class InMemoryStoreBoardSanitizationTest {
 
         assertNull(item.board());
     }
+
+    @Test
+    void orderItemsAreEnrichedOnlyWhileTheCustomerHasASingleBoard() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.putOrderItem(new OrderItemDto("i1", "o1", "Alpha", "c1", "", "now", null));
+        store.putOrderItem(new OrderItemDto("i2", "o2", "Alpha", "c1", "", "now", "ვაკე"));
+        store.addBoard("c1", "საბურთალო");
+
+        assertEquals("საბურთალო", store.getOrderItem("i1").board());
+        store.addBoard("c1", "დიღომი");
+        assertNull(store.getOrderItem("i1").board());
+        store.removeBoard("c1", "საბურთალო");
+
+        Map<String, List<OrderItemDto>> byOrder = store.getOrderItemsByOrder(List.of("o1", "o2", "o3"));
+        assertEquals("დიღომი", byOrder.get("o1").get(0).board());
+        assertEquals("ვაკე", byOrder.get("o2").get(0).board());
+        assertEquals(2, byOrder.size());
+    }
 }
@@ -0,0 +1,53 @@
+package ge.orderapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.dto.response.CustomerDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryStoreFrequencyScoreTest {
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws Exception {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.putCustomer(new CustomerDto("c1", "A", "1", 0, "u1", true, "t", "t", null));
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) store.incrementFrequencyScore("c1");
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+
+        assertEquals(80_000, store.getCustomer("c1").frequencyScore());
+    }
+
+    @Test
+    void reloadKeepsScoresThatWereNotPersistedYet() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        List<List<Object>> sheet = List.of(
+                List.of("c1", "A", "1", 4, "u1", "TRUE", "t", "t"),
+                List.of("c2", "B", "2", 7, "u1", "TRUE", "t", "t"));
+        store.loadCustomers(sheet);
+        store.incrementFrequencyScore("c1");
+        store.incrementFrequencyScore("c1");
+
+        store.loadCustomers(sheet);
+
+        assertEquals(6, store.getCustomer("c1").frequencyScore());
+        assertEquals(7, store.getCustomer("c2").frequencyScore());
+        List<CustomerDto> dirty = store.drainDirtyFrequencyScores();
+        assertEquals(List.of("c1"), dirty.stream().map(CustomerDto::customerId).toList());
+        assertEquals(List.of(), store.drainDirtyFrequencyScores());
+    }
+}
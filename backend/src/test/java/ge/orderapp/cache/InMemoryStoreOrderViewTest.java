@@ -0,0 +1,55 @@
+package ge.orderapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryStoreOrderViewTest {
+
+    @Test
+    void viewIgnoresCommitsAfterItWasTaken() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.commitOrder(order("o1"), List.of(item("i1", "o1", "ვაკე")));
+
+        InMemoryStore.OrderView view = store.orderView();
+        store.commitOrder(order("o2"), List.of(item("i2", "o2", null), item("i3", "o2", null)));
+        store.updateOrderItemBoard("i1", "საბურთალო");
+
+        assertNull(view.getOrder("o2"));
+        assertTrue(view.getOrderItems("o2").isEmpty());
+        assertEquals(1, view.getOrders(null, null, null, null, 0, 20).size());
+        assertEquals("ვაკე", view.getOrderItem("i1").board());
+
+        InMemoryStore.OrderView latest = store.orderView();
+        assertEquals(2, latest.getOrderItems("o2").size());
+        assertEquals("საბურთალო", latest.getOrderItem("i1").board());
+    }
+
+    @Test
+    void reloadDoesNotChangeAnOpenView() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.commitOrder(order("o1"), List.of());
+        InMemoryStore.OrderView view = store.orderView();
+
+        store.loadOrders(List.of(List.of("o9", "m1", "Manager", "2026-03-01", "SENT", "TRUE", "", "1",
+                "2026-03-01T09:00:00Z")));
+
+        assertNotNull(view.getOrder("o1"));
+        assertNull(view.getOrder("o9"));
+        assertNotNull(store.getOrder("o9"));
+        assertNull(store.getOrder("o1"));
+    }
+
+    private static OrderDto order(String id) {
+        return new OrderDto(id, "m1", "Manager", "2026-03-01", "SENT", true, "", 1, "2026-03-01T09:00:00Z", null);
+    }
+
+    private static OrderItemDto item(String id, String orderId, String board) {
+        return new OrderItemDto(id, orderId, "Customer", "c1", "", "2026-03-01T09:00:00Z", board);
+    }
+}
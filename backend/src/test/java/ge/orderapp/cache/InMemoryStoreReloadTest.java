@@ -0,0 +1,109 @@
+package ge.orderapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.dto.response.DraftDto;
+import ge.orderapp.dto.response.MyCustomerDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class InMemoryStoreReloadTest {
+
+    @Test
+    void readersNeverSeeATabHalfwayThroughAReload() throws Exception {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        List<List<Object>> users = List.of(List.of("u1", "nino", "hash", "Nino", "MANAGER", "TRUE", "now"));
+        List<List<Object>> orders = new ArrayList<>();
+        List<List<Object>> mine = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            orders.add(List.of("o" + i, "u1", "Nino", "2026-03-01", "SENT", "TRUE", "now", "1", "now"));
+            mine.add(List.of("u1", "Customer " + i, "c" + i, "now"));
+        }
+        store.loadUsers(users);
+        store.loadOrders(orders);
+        store.loadMyCustomers(mine);
+
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (reloading.get()) {
+                if (store.getUserByUsername("NINO") == null || store.getUserPasswordHash("u1") == null) misses.incrementAndGet();
+                if (store.getOrder("o1999") == null) misses.incrementAndGet();
+                if (store.getMyCustomerIds("u1").size() != 2_000) misses.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 200; i++) {
+            store.loadUsers(users);
+            store.loadOrders(orders);
+            store.loadMyCustomers(mine);
+        }
+        reloading.set(false);
+        reader.join();
+
+        assertEquals(0, misses.get());
+    }
+
+    @Test
+    void writesMadeWhileATabLoadsSurviveTheSwap() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+
+        store.loadDrafts(writingAfterFirstRow(List.of(
+                        List.of("d1", "u1", "Monday", "[]", "now", "now"),
+                        List.of("d2", "u1", "Tuesday", "[]", "now", "now")),
+                () -> store.putDraft(new DraftDto("d3", "u1", "Written during load", List.of(), "now", "now"))));
+        store.loadMyCustomers(writingAfterFirstRow(List.of(
+                        List.of("u1", "Customer 1", "c1", "now"),
+                        List.of("u1", "Customer 2", "c2", "now")),
+                () -> {
+                    store.addMyCustomer(new MyCustomerDto("u1", "Customer 3", "c3", "now"));
+                    store.removeMyCustomer("u1", "c2");
+                }));
+        store.loadCustomerBoards(writingAfterFirstRow(List.of(
+                        List.of("c1", "Board A", "now", "u1"),
+                        List.of("c1", "Board B", "now", "u1")),
+                () -> {
+                    store.addBoard("c2", "Board C");
+                    store.removeBoard("c1", "Board B");
+                }));
+
+        assertEquals(3, store.getDrafts("u1").size());
+        assertNotNull(store.getDraft("d3"));
+        assertEquals(Set.of("c1", "c3"), store.getMyCustomerIds("u1"));
+        assertEquals(List.of("Board A"), store.getBoards("c1"));
+        assertEquals(List.of("Board C"), store.getBoards("c2"));
+
+        // Nothing is left recording: a later load starts from its own rows only
+        store.loadDrafts(List.of(List.of("d1", "u1", "Monday", "[]", "now", "now")));
+        assertEquals(1, store.getDrafts("u1").size());
+    }
+
+    /** Rows that run {@code write} once the loader has consumed the first row, as a concurrent request would. */
+    private static Iterable<List<Object>> writingAfterFirstRow(List<List<Object>> rows, Runnable write) {
+        return () -> new Iterator<>() {
+            private int next;
+            private boolean written;
+
+            @Override
+            public boolean hasNext() {
+                if (next == 1 && !written) {
+                    written = true;
+                    write.run();
+                }
+                return next < rows.size();
+            }
+
+            @Override
+            public List<Object> next() {
+                return rows.get(next++);
+            }
+        };
+    }
+}
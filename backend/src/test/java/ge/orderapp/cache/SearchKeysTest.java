@@ -0,0 +1,50 @@
+package ge.orderapp.cache;
+
+import ge.orderapp.dto.response.CustomerDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchKeysTest {
+
+    @Test
+    void legalFormsSpacingAndScriptAreNormalizedAway() {
+        assertEquals("tasti", SearchKeys.of("შპს თასთი"));
+        assertEquals("tasti", SearchKeys.of("  TASTY  LLC "));
+        assertEquals("bakhusi", SearchKeys.of("სს \"ბახუსი\""));
+        assertEquals("bakhusi", SearchKeys.of("Baxusi"));
+        assertEquals("giorgiberidze", SearchKeys.of("ი/მ გიორგი ბერიძე"));
+        assertEquals("tsqnetiskhachapuri", SearchKeys.of("წყნეთის ხაჭაპური"));
+        assertEquals("", SearchKeys.of("შპს"));
+        assertEquals("shp", SearchKeys.of("შპ"));
+        assertEquals("shpstasti", SearchKeys.withLegalForms("შპს თასთი"));
+    }
+
+    @Test
+    void latinQueriesFindGeorgianNames() {
+        CustomerTable table = new CustomerTable(0);
+        table.put(new CustomerDto("c1", "შპს თასთი", "404476988", 3, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c2", "ი/მ გიორგი ბერიძე", "01001012345", 1, "u1", true, "t", "t", null));
+        table.put(new CustomerDto("c3", "შპს ლობიანი", "202033060", 0, "u1", true, "t", "t", null));
+
+        assertEquals(List.of("c1"), search(table, "tasti"));
+        assertEquals(List.of("c2"), search(table, "giorgi beri"));
+        assertEquals(List.of("c2"), search(table, "გიორგიბერიძე"));
+        assertEquals(List.of("c3"), search(table, "2020"));
+        assertTrue(search(table, "შპს").containsAll(List.of("c1", "c3")));
+        // A legal form still being typed matches by prefix, as a plain substring would
+        assertEquals(List.of("c1", "c3"), search(table, "შპ"));
+        assertEquals(List.of("c1", "c3"), search(table, "shp"));
+        assertEquals(List.of("c1"), search(table, "shps tas"));
+    }
+
+    private static List<String> search(CustomerTable table, String query) {
+        return table.search(query, null, 0, Set::of, false, 0, 20, id -> List.of()).stream()
+                .map(CustomerDto::customerId)
+                .toList();
+    }
+}
@@ -0,0 +1,257 @@
+package ge.orderapp.integration.rsge;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the RS.GE WayBillService SOAP endpoint. Answers {@code get_waybills} and
+ * {@code get_buyer_waybills} with generated waybills, so {@link RealRsGeSoapClient}'s chunking,
+ * -1064 splitting and XML parsing run against realistic payloads.
+ * <p>
+ * Payloads are deterministic per operation and day: the same range always yields the same waybills.
+ * Counterparties are drawn from a fixed pool of TINs, so repeated syncs hit existing customers.
+ * Requests spanning more than {@code maxRangeDays} are answered with STATUS -1064, like the real service.
+ * <p>
+ * Run {@link #main} for a standalone endpoint and point {@code RSGE_ENDPOINT} at {@link #endpoint()}:
+ * {@code RsGeSoapSimulator [port] [waybillsPerDay] [latencyMs]}.
+ */
+public class RsGeSoapSimulator implements AutoCloseable {
+
+    private static final Pattern OPERATION = Pattern.compile("<(get_waybills|get_buyer_waybills)[\\s>]");
+    private static final Pattern START = Pattern.compile("<create_date_s>(\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern END = Pattern.compile("<create_date_e>(\\d{4}-\\d{2}-\\d{2})");
+    private static final String OWN_TIN = "404000000";
+
+    private final HttpServer server;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final AtomicLong waybillsServed = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    private volatile int waybillsPerDay = 200;
+    private volatile int customerPool = 1_500;
+    private volatile int maxRangeDays = 7;
+    private volatile long latencyMs;
+    private volatile long seed = 42;
+    /** Relative weights of waybill STATUS values; -1 and -2 are cancelled and skipped by the extractor. */
+    private volatile Map<Integer, Integer> statusWeights = new TreeMap<>(Map.of(1, 70, 2, 20, 0, 4, -1, 3, -2, 3));
+
+    public RsGeSoapSimulator(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static RsGeSoapSimulator start() throws IOException {
+        RsGeSoapSimulator simulator = new RsGeSoapSimulator(0);
+        simulator.server.start();
+        return simulator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        RsGeSoapSimulator simulator = new RsGeSoapSimulator(args.length > 0 ? Integer.parseInt(args[0]) : 8090);
+        if (args.length > 1) simulator.withWaybillsPerDay(Integer.parseInt(args[1]));
+        if (args.length > 2) simulator.withLatency(Long.parseLong(args[2]));
+        simulator.server.start();
+        System.out.println("RS.GE simulator listening on " + simulator.endpoint()
+                + " (waybillsPerDay=" + simulator.waybillsPerDay + ", latencyMs=" + simulator.latencyMs + ")");
+    }
+
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/WayBillService/WayBillService.asmx";
+    }
+
+    public RsGeSoapSimulator withWaybillsPerDay(int waybillsPerDay) {
+        this.waybillsPerDay = waybillsPerDay;
+        return this;
+    }
+
+    public RsGeSoapSimulator withCustomerPool(int customerPool) {
+        this.customerPool = customerPool;
+        return this;
+    }
+
+    public RsGeSoapSimulator withMaxRangeDays(int maxRangeDays) {
+        this.maxRangeDays = maxRangeDays;
+        return this;
+    }
+
+    public RsGeSoapSimulator withLatency(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    public RsGeSoapSimulator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public RsGeSoapSimulator withStatusWeights(Map<Integer, Integer> statusWeights) {
+        this.statusWeights = new TreeMap<>(statusWeights);
+        return this;
+    }
+
+    /** Requests received per operation; rejected (-1064) requests are counted under {@code <operation>:-1064}. */
+    public int calls(String operation) {
+        AtomicInteger count = calls.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    public long waybillsServed() {
+        return waybillsServed.get();
+    }
+
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // --- Request handling ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            sleep(latencyMs);
+
+            Matcher op = OPERATION.matcher(request);
+            Matcher start = START.matcher(request);
+            Matcher end = END.matcher(request);
+            if (!op.find() || !start.find() || !end.find()) {
+                respond(exchange, 500, fault("Unsupported request"));
+                return;
+            }
+            String operation = op.group(1);
+            LocalDate from = LocalDate.parse(start.group(1));
+            LocalDate toExclusive = LocalDate.parse(end.group(1));
+
+            if (ChronoUnit.DAYS.between(from, toExclusive) > maxRangeDays) {
+                count(operation + ":-1064");
+                respond(exchange, 200, envelope(operation, "<RESULT><STATUS>-1064</STATUS></RESULT>"));
+                return;
+            }
+            count(operation);
+
+            StringBuilder list = new StringBuilder(waybillsPerDay * 700);
+            list.append("<WAYBILL_LIST>");
+            int served = 0;
+            for (LocalDate day = from; day.isBefore(toExclusive); day = day.plusDays(1)) {
+                served += appendWaybills(list, operation, day);
+            }
+            list.append("</WAYBILL_LIST>");
+            waybillsServed.addAndGet(served);
+            respond(exchange, 200, envelope(operation, list.toString()));
+        }
+    }
+
+    private int appendWaybills(StringBuilder out, String operation, LocalDate day) {
+        boolean buyerSide = operation.equals("get_buyer_waybills");
+        SplittableRandom random = new SplittableRandom(seed ^ (day.toEpochDay() * 31 + operation.hashCode()));
+        int count = buyerSide ? Math.max(1, waybillsPerDay / 4) : waybillsPerDay;
+        for (int i = 0; i < count; i++) {
+            int counterparty = random.nextInt(customerPool);
+            String counterpartyTin = String.valueOf(200_000_000 + counterparty);
+            String counterpartyName = (counterparty % 3 == 0 ? "შპს " : "") + "კონტრაგენტი " + counterparty;
+            String id = (buyerSide ? "B" : "S") + day.toEpochDay() + "-" + i;
+            String time = "%sT%02d:%02d:00".formatted(day, 8 + random.nextInt(10), random.nextInt(60));
+
+            out.append("<WAYBILL>");
+            field(out, "ID", id);
+            field(out, "TYPE", String.valueOf(buyerSide ? 5 : 2));
+            field(out, "WAYBILL_NUMBER", String.valueOf(1_000_000_000L + Math.abs(id.hashCode())));
+            field(out, "CREATE_DATE", time);
+            field(out, "ACTIVATE_DATE", time);
+            field(out, "STATUS", String.valueOf(pickStatus(random)));
+            field(out, "BUYER_TIN", buyerSide ? OWN_TIN : counterpartyTin);
+            field(out, "BUYER_NAME", buyerSide ? "შპს ჩვენი კომპანია" : counterpartyName);
+            field(out, "SELLER_TIN", buyerSide ? counterpartyTin : OWN_TIN);
+            field(out, "SELLER_NAME", buyerSide ? counterpartyName : "შპს ჩვენი კომპანია");
+            field(out, "START_ADDRESS", "თბილისი, აღმაშენებლის გამზ. " + random.nextInt(200));
+            field(out, "END_ADDRESS", "თბილისი, ვაჟა-ფშაველას გამზ. " + random.nextInt(200));
+            field(out, "DRIVER_TIN", String.valueOf(10_000_000_000L + random.nextInt(1_000_000)));
+            field(out, "CAR_NUMBER", "AA-" + (100 + random.nextInt(900)) + "-BB");
+            field(out, "FULL_AMOUNT", String.format(Locale.ROOT, "%.2f", 20 + random.nextDouble() * 2_000));
+            out.append("</WAYBILL>");
+        }
+        return count;
+    }
+
+    private int pickStatus(SplittableRandom random) {
+        Map<Integer, Integer> weights = statusWeights;
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(Math.max(1, total));
+        for (Map.Entry<Integer, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        return 1;
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        out.append('<').append(name).append('>').append(value).append("</").append(name).append('>');
+    }
+
+    private static String envelope(String operation, String result) {
+        return """
+                <?xml version="1.0" encoding="utf-8"?>
+                <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+                  <soap:Body>
+                    <%1$sResponse xmlns="http://tempuri.org/">
+                      <%1$sResult>%2$s</%1$sResult>
+                    </%1$sResponse>
+                  </soap:Body>
+                </soap:Envelope>
+                """.formatted(operation, result);
+    }
+
+    private static String fault(String message) {
+        return """
+                <?xml version="1.0" encoding="utf-8"?>
+                <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+                  <soap:Body><soap:Fault><faultcode>soap:Client</faultcode><faultstring>%s</faultstring></soap:Fault></soap:Body>
+                </soap:Envelope>
+                """.formatted(message);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        bytesServed.addAndGet(bytes.length);
+    }
+
+    private void count(String key) {
+        calls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ge.orderapp.integration.rsge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.dto.response.SyncStateDto;
+import ge.orderapp.service.SyncService;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RsGeSoapSimulatorTest {
+
+    @Test
+    void oversizedRangeIsSplitIntoChunksAndParsed() throws Exception {
+        try (RsGeSoapSimulator simulator = RsGeSoapSimulator.start()
+                .withWaybillsPerDay(20)
+                .withMaxRangeDays(3)) {
+            RealRsGeSoapClient client = client(simulator, 3);
+            try {
+                LocalDate end = LocalDate.of(2026, 3, 10);
+                List<Map<String, Object>> waybills = client.getWaybills(end.minusDays(9), end);
+
+                assertEquals(1, simulator.calls("get_waybills:-1064"));
+                assertEquals(4, simulator.calls("get_waybills"));
+                assertEquals(200, waybills.size());
+                assertEquals(200, waybills.stream().map(w -> w.get("ID")).distinct().count());
+                assertTrue(waybills.stream().allMatch(w -> w.get("BUYER_TIN") != null && w.get("FULL_AMOUNT") != null));
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @Disabled("Manual benchmark. Run explicitly to measure sync throughput against the RS.GE simulator.")
+    void syncThroughputBenchmark() throws Exception {
+        try (RsGeSoapSimulator simulator = RsGeSoapSimulator.start()
+                .withWaybillsPerDay(1_500)
+                .withCustomerPool(5_000)
+                .withLatency(150)) {
+            RealRsGeSoapClient client = client(simulator, 3);
+            try {
+                InMemoryStore store = new InMemoryStore(new ObjectMapper());
+                SyncService syncService = new SyncService(store, client, new CustomerExtractor());
+                ReflectionTestUtils.setField(syncService, "fullSyncMonths", 2);
+                ReflectionTestUtils.setField(syncService, "maxRetries", 0);
+                ReflectionTestUtils.setField(syncService, "retryDelaysMs", "1000");
+                ReflectionTestUtils.setField(syncService, "syncSourceUser", "rsge_sync");
+
+                runAndReport("FULL", syncService, store, simulator, null);
+                runAndReport("DAILY", syncService, store, simulator, LocalDate.now().minusDays(1).toString());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    private void runAndReport(String type, SyncService syncService, InMemoryStore store,
+                              RsGeSoapSimulator simulator, String date) throws InterruptedException {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long waybillsBefore = simulator.waybillsServed();
+        long bytesBefore = simulator.bytesServed();
+
+        long start = System.nanoTime();
+        String syncId = syncService.triggerSync(type, date).syncId();
+        SyncStateDto state = awaitCompletion(store, syncId);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long waybills = simulator.waybillsServed() - waybillsBefore;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%s sync: status=%s waybills=%d (%.1f MB xml) in %.2fs -> %.0f waybills/s, found=%d added=%d, peakHeap=%d MB%n",
+                type, state.status(), waybills, (simulator.bytesServed() - bytesBefore) / 1e6, seconds,
+                waybills / seconds, state.customersFound(), state.customersAdded(), peakHeap / (1024 * 1024));
+    }
+
+    private SyncStateDto awaitCompletion(InMemoryStore store, String syncId) throws InterruptedException {
+        while (true) {
+            SyncStateDto state = store.getSyncStates(50).stream()
+                    .filter(s -> s.syncId().equals(syncId))
+                    .findFirst()
+                    .orElseThrow();
+            if (!"RUNNING".equals(state.status())) return state;
+            Thread.sleep(50);
+        }
+    }
+
+    private RealRsGeSoapClient client(RsGeSoapSimulator simulator, int chunkDays) {
+        RealRsGeSoapClient client = new RealRsGeSoapClient();
+        ReflectionTestUtils.setField(client, "endpoint", simulator.endpoint());
+        ReflectionTestUtils.setField(client, "username", "simulator");
+        ReflectionTestUtils.setField(client, "password", "simulator");
+        ReflectionTestUtils.setField(client, "timeoutSeconds", 60);
+        ReflectionTestUtils.setField(client, "connectTimeoutSeconds", 5);
+        ReflectionTestUtils.setField(client, "chunkDays", chunkDays);
+        ReflectionTestUtils.setField(client, "chunkParallelism", 3);
+        ReflectionTestUtils.setField(client, "soapNamespace", "http://tempuri.org/");
+        ReflectionTestUtils.setField(client, "dateFormatPattern", "yyyy-MM-dd'T'HH:mm:ss");
+        client.initClient();
+        return client;
+    }
+}
@@ -0,0 +1,64 @@
+package ge.orderapp.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchGetReaderTest {
+
+    private static final String BODY = """
+            {
+              "spreadsheetId": "sheet",
+              "valueRanges": [
+                {"range": "Customers!A1:H2", "majorDimension": "ROWS",
+                 "values": [["c1", "Alpha", 404476988, 12.5, "x", true], [], ["c2", "Beta", "", 0, "x", false]]},
+                {"range": "Users!A1:G1", "majorDimension": "ROWS"},
+                {"range": "Orders!A1:I1", "majorDimension": "ROWS", "values": [["o1"], ["o2"], ["o3"]]}
+              ]
+            }
+            """;
+
+    @Test
+    void rowsAreDeliveredPerTabWithTypedCells() throws Exception {
+        Map<String, List<List<Object>>> received = new LinkedHashMap<>();
+        int ranges = BatchGetReader.read(stream(BODY), List.of("Customers", "Users", "Orders"), (tab, rows) -> {
+            List<List<Object>> copy = new ArrayList<>();
+            rows.forEach(copy::add);
+            received.put(tab, copy);
+        });
+
+        assertEquals(3, ranges);
+        assertEquals(List.of("Customers", "Users", "Orders"), List.copyOf(received.keySet()));
+        List<Object> first = received.get("Customers").get(0);
+        assertEquals("Alpha", first.get(1));
+        assertEquals(404476988, ((Number) first.get(2)).intValue());
+        assertEquals(12.5, ((Number) first.get(3)).doubleValue());
+        assertEquals(Boolean.TRUE, first.get(5));
+        assertEquals(List.of(), received.get("Customers").get(1));
+        assertEquals(3, received.get("Customers").size());
+        assertTrue(received.get("Users").isEmpty());
+        assertEquals(3, received.get("Orders").size());
+    }
+
+    @Test
+    void rowsLeftUnreadAreSkipped() throws Exception {
+        List<String> firstRows = new ArrayList<>();
+        BatchGetReader.read(stream(BODY), List.of("Customers", "Users", "Orders"), (tab, rows) -> {
+            var it = rows.iterator();
+            if (it.hasNext()) firstRows.add(tab + ":" + it.next().get(0));
+        });
+
+        assertEquals(List.of("Customers:c1", "Orders:o1"), firstRows);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
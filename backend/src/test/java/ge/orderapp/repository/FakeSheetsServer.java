@@ -0,0 +1,308 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in for the Sheets v4 endpoints {@link SheetsClient} uses: spreadsheet metadata
+ * {@code get}, {@code values.batchGet}, {@code values.get}, {@code values.append}, {@code values.update}
+ * and {@code values.batchUpdate}.
+ * Tabs live in memory; latency and 429 responses can be injected to exercise batching and retry paths.
+ * <p>
+ * Point the app at it with {@code GOOGLE_SHEETS_ROOT_URL=http://localhost:<port>/} and an empty
+ * credentials path, or run {@link #main} for a standalone server:
+ * {@code FakeSheetsServer [port] [latencyMs] [orderItemRows]}.
+ */
+public class FakeSheetsServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, List<List<Object>>> tabs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingFailures = new AtomicInteger();
+    private final AtomicLong appendedRows = new AtomicLong();
+    private final HttpServer server;
+
+    private volatile long latencyMs;
+    private volatile double throttleRate;
+
+    public FakeSheetsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/v4/spreadsheets/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        for (String tab : PersistenceBackend.TAB_NAMES) {
+            tabs.put(tab, Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+
+    public static FakeSheetsServer start() throws IOException {
+        FakeSheetsServer fake = new FakeSheetsServer(0);
+        fake.server.start();
+        return fake;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        FakeSheetsServer fake = new FakeSheetsServer(port);
+        fake.withLatency(args.length > 1 ? Long.parseLong(args[1]) : 0);
+        int itemRows = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        fake.seed("Order_Items", itemRows, i -> List.of(
+                "item-" + i, "order-" + (i / 5), "Customer " + (i % 500), "c" + (i % 500), "", "2026-01-01T10:00:00Z", ""));
+        fake.server.start();
+        System.out.println("Fake Sheets listening on " + fake.rootUrl() + " (latencyMs=" + fake.latencyMs
+                + ", orderItemRows=" + itemRows + ")");
+    }
+
+    public String rootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public FakeSheetsServer withLatency(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    /** Fraction (0..1) of requests answered with 429 RESOURCE_EXHAUSTED. */
+    public FakeSheetsServer withThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    /** Answers the next {@code count} requests with 429, regardless of the throttle rate. */
+    public void failNext(int count) {
+        pendingFailures.set(count);
+    }
+
+    public void seed(String tab, int count, IntFunction<List<Object>> rowFactory) {
+        List<List<Object>> rows = tabs.computeIfAbsent(tab, k -> Collections.synchronizedList(new ArrayList<>()));
+        for (int i = 0; i < count; i++) {
+            rows.add(new ArrayList<>(rowFactory.apply(i)));
+        }
+    }
+
+    public List<List<Object>> rows(String tab) {
+        synchronized (tabs.get(tab)) {
+            return List.copyOf(tabs.get(tab));
+        }
+    }
+
+    /** Requests received per endpoint: get, batchGet, values.get, append, update, batchUpdate. */
+    public int calls(String endpoint) {
+        AtomicInteger count = calls.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    public long appendedRows() {
+        return appendedRows.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // --- Request handling ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            handleRequest(exchange);
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        try {
+            sleep(latencyMs);
+            if (shouldThrottle()) {
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, 429, Map.of("error", Map.of(
+                        "code", 429, "message", "Quota exceeded (fake)", "status", "RESOURCE_EXHAUSTED")));
+                return;
+            }
+
+            // /v4/spreadsheets/{id}[/values...]
+            String path = exchange.getRequestURI().getPath();
+            String rest = path.substring("/v4/spreadsheets/".length());
+            int idEnd = rest.indexOf('/');
+            String spreadsheetId = idEnd < 0 ? rest : rest.substring(0, idEnd);
+            String method = exchange.getRequestMethod();
+            Map<String, List<String>> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (rest.equals(spreadsheetId)) {
+                count("get");
+                respond(exchange, 200, metadata(spreadsheetId));
+            } else if (rest.endsWith("/values:batchGet")) {
+                count("batchGet");
+                List<Map<String, Object>> valueRanges = new ArrayList<>();
+                for (String range : query.getOrDefault("ranges", List.of())) {
+                    valueRanges.add(valueRange(range));
+                }
+                respond(exchange, 200, Map.of("spreadsheetId", spreadsheetId, "valueRanges", valueRanges));
+            } else if (rest.endsWith("/values:batchUpdate") && "POST".equals(method)) {
+                count("batchUpdate");
+                respond(exchange, 200, batchUpdate(spreadsheetId, readBody(exchange)));
+            } else if (rest.contains("/values/") && rest.endsWith(":append") && "POST".equals(method)) {
+                count("append");
+                String range = rest.substring(rest.indexOf("/values/") + "/values/".length(), rest.length() - ":append".length());
+                respond(exchange, 200, append(spreadsheetId, range, readValues(exchange)));
+            } else if (rest.contains("/values/") && "PUT".equals(method)) {
+                count("update");
+                String range = rest.substring(rest.indexOf("/values/") + "/values/".length());
+                respond(exchange, 200, update(spreadsheetId, range, readValues(exchange)));
+            } else if (rest.contains("/values/") && "GET".equals(method)) {
+                count("values.get");
+                respond(exchange, 200, valueRange(rest.substring(rest.indexOf("/values/") + "/values/".length())));
+            } else {
+                respond(exchange, 404, Map.of("error", Map.of("code", 404, "message", "Not found: " + method + " " + path)));
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, Map.of("error", Map.of("code", 500, "message", String.valueOf(e))));
+        }
+    }
+
+    private Map<String, Object> metadata(String spreadsheetId) {
+        List<Map<String, Object>> sheets = new ArrayList<>();
+        for (String tab : tabs.keySet()) {
+            sheets.add(Map.of("properties", Map.of("title", tab)));
+        }
+        return Map.of("spreadsheetId", spreadsheetId, "properties", Map.of("title", "Fake Sheets"), "sheets", sheets);
+    }
+
+    private Map<String, Object> valueRange(String range) {
+        ParsedRange parsed = ParsedRange.parse(range);
+        List<List<Object>> rows = tabs.getOrDefault(parsed.tab, List.of());
+        List<List<Object>> values = new ArrayList<>();
+        synchronized (rows) {
+            for (List<Object> row : rows) {
+                values.add(parsed.singleColumn ? (row.isEmpty() ? List.of() : List.of(row.get(0))) : row);
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("range", range);
+        body.put("majorDimension", "ROWS");
+        if (!values.isEmpty()) body.put("values", values);
+        return body;
+    }
+
+    private Map<String, Object> append(String spreadsheetId, String range, List<List<Object>> values) {
+        ParsedRange parsed = ParsedRange.parse(range);
+        List<List<Object>> rows = tabs.computeIfAbsent(parsed.tab, k -> Collections.synchronizedList(new ArrayList<>()));
+        int firstRow;
+        synchronized (rows) {
+            firstRow = rows.size() + 1;
+            rows.addAll(values);
+        }
+        appendedRows.addAndGet(values.size());
+        return Map.of("spreadsheetId", spreadsheetId, "updates", Map.of(
+                "updatedRange", parsed.tab + "!A" + firstRow + ":Z" + (firstRow + values.size() - 1),
+                "updatedRows", values.size(),
+                "updatedColumns", values.stream().mapToInt(List::size).max().orElse(0)));
+    }
+
+    private Map<String, Object> update(String spreadsheetId, String range, List<List<Object>> values) {
+        ParsedRange parsed = ParsedRange.parse(range);
+        List<List<Object>> rows = tabs.computeIfAbsent(parsed.tab, k -> Collections.synchronizedList(new ArrayList<>()));
+        synchronized (rows) {
+            for (int i = 0; i < values.size(); i++) {
+                int index = parsed.startRow - 1 + i;
+                while (rows.size() <= index) rows.add(new ArrayList<>());
+                rows.set(index, values.get(i));
+            }
+        }
+        return Map.of("spreadsheetId", spreadsheetId, "updatedRange", range, "updatedRows", values.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> batchUpdate(String spreadsheetId, Map<String, Object> request) {
+        List<Map<String, Object>> data = (List<Map<String, Object>>) request.getOrDefault("data", List.of());
+        int updatedRows = 0;
+        for (Map<String, Object> valueRange : data) {
+            List<List<Object>> values = (List<List<Object>>) valueRange.getOrDefault("values", List.of());
+            update(spreadsheetId, (String) valueRange.get("range"), values);
+            updatedRows += values.size();
+        }
+        return Map.of("spreadsheetId", spreadsheetId, "totalUpdatedRows", updatedRows, "totalUpdatedSheets", data.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> readValues(HttpExchange exchange) throws IOException {
+        Object values = readBody(exchange).get("values");
+        return values == null ? List.of() : (List<List<Object>>) values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        // The Google client gzips request bodies by default.
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+        return objectMapper.readValue(body, Map.class);
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private boolean shouldThrottle() {
+        if (pendingFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) return true;
+        return throttleRate > 0 && Math.random() < throttleRate;
+    }
+
+    private void count(String endpoint) {
+        calls.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A1 range such as {@code Customers!A:Z}, {@code Users!A:A} or {@code Orders!A17}. */
+    private record ParsedRange(String tab, boolean singleColumn, int startRow) {
+
+        static ParsedRange parse(String range) {
+            int bang = range.indexOf('!');
+            String tab = bang < 0 ? range : range.substring(0, bang);
+            String cells = bang < 0 ? "A:Z" : range.substring(bang + 1);
+            boolean singleColumn = cells.equals("A:A");
+            String digits = cells.replaceAll("^[A-Z]+(\\d*).*$", "$1");
+            int startRow = digits.isEmpty() ? 1 : Integer.parseInt(digits);
+            return new ParsedRange(tab, singleColumn, startRow);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileBackendTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void writesSurviveRestartAndCompaction() throws Exception {
+        LocalFileBackend backend = open();
+        backend.appendRow("Customers", List.of("c1", "შპს თასთი", "404476988", 0, "admin", "TRUE", "t0", "t0"));
+        backend.appendRow("Customers", List.of("c2", "შპს ბახუსი", "205197070", 3, "admin", "TRUE", "t0", "t0"));
+        for (int i = 1; i <= 5; i++) {
+            int rowIndex = backend.findRowIndex("Customers", "c1");
+            backend.updateRow("Customers", rowIndex, List.of("c1", "შპს თასთი", "404476988", i, "admin", "TRUE", "t0", "t" + i));
+        }
+        backend.compact();
+        backend.shutdown();
+
+        Path log = dataDir.resolve("Customers.log");
+        assertEquals(2, Files.readAllLines(log).size());
+
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        LocalFileBackend reopened = new LocalFileBackend(store, new ObjectMapper());
+        configure(reopened);
+        reopened.init();
+
+        assertTrue(store.isReady());
+        assertEquals(5, store.getCustomer("c1").frequencyScore());
+        assertEquals("t5", store.getCustomer("c1").updatedAt());
+        assertEquals(3, store.getCustomerByTin("205197070").frequencyScore());
+        assertEquals(2, reopened.findRowIndex("Customers", "c2"));
+        reopened.shutdown();
+    }
+
+    @Test
+    void tornLastLineIsSkippedOnReplay() throws Exception {
+        Files.writeString(dataDir.resolve("Users.log"),
+                "{\"op\":\"A\",\"row\":[\"u1\",\"admin\",\"hash\",\"Admin\",\"ADMIN\",\"TRUE\",\"t0\"]}\n{\"op\":\"A\",\"row\":[\"u2\"");
+
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        LocalFileBackend backend = new LocalFileBackend(store, new ObjectMapper());
+        configure(backend);
+        backend.init();
+
+        assertEquals(1, store.getAllUsers().size());
+        assertEquals("hash", store.getUserPasswordHash("u1"));
+        backend.shutdown();
+    }
+
+    private LocalFileBackend open() {
+        LocalFileBackend backend = new LocalFileBackend(new InMemoryStore(new ObjectMapper()), new ObjectMapper());
+        configure(backend);
+        backend.init();
+        return backend;
+    }
+
+    private void configure(LocalFileBackend backend) {
+        ReflectionTestUtils.setField(backend, "dataDir", dataDir.toString());
+        ReflectionTestUtils.setField(backend, "compactMinRecords", 1);
+    }
+}
@@ -0,0 +1,174 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.dto.response.CustomerDto;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceSubscriberTest {
+
+    @Test
+    void repeatedChangesToOneRowBecomeOneWrite() {
+        RecordingBackend backend = new RecordingBackend();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        PersistenceSubscriber subscriber = subscriber(store, backend);
+
+        store.putCustomer(customer("c1", "First", true));
+        store.putCustomer(customer("c1", "Second", true));
+        store.putCustomer(customer("c1", "Third", false));
+        subscriber.flush();
+
+        assertEquals(List.of("append Customers [c1, Third, , 0, tester, FALSE, t, t]"), backend.writes);
+    }
+
+    @Test
+    void updatesResolveRowsWithOneLookupPerTab() {
+        RecordingBackend backend = new RecordingBackend();
+        backend.rows.put("c1", 2);
+        backend.rows.put("c2", 3);
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.loadCustomers(List.of(
+                List.of("c1", "One", "", "0", "x", "TRUE", "t", "t"),
+                List.of("c2", "Two", "", "0", "x", "TRUE", "t", "t")));
+        PersistenceSubscriber subscriber = subscriber(store, backend);
+
+        store.putCustomer(customer("c1", "One bis", true));
+        store.putCustomer(customer("c2", "Two bis", true));
+        subscriber.flush();
+
+        assertEquals(1, backend.lookups);
+        assertEquals(List.of("update Customers 2 [c1, One bis, , 0, tester, TRUE, t, t]",
+                "update Customers 3 [c2, Two bis, , 0, tester, TRUE, t, t]"), backend.writes);
+    }
+
+    @Test
+    void updateWaitsAsLongAsItsAppendIsPendingInTheBackend() {
+        RecordingBackend backend = new RecordingBackend();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.loadCustomers(List.<List<Object>>of(List.of("c1", "One", "", "0", "x", "TRUE", "t", "t")));
+        PersistenceSubscriber subscriber = subscriber(store, backend);
+        backend.pendingAppends.add("Customers\nc1");
+
+        store.putCustomer(customer("c1", "One bis", true));
+        for (int i = 0; i < 20; i++) subscriber.flush(); // e.g. Sheets writes paused by a 429
+        assertEquals(List.of(), backend.writes);
+
+        backend.pendingAppends.clear();
+        backend.rows.put("c1", 2);
+        subscriber.flush();
+        assertEquals(List.of("update Customers 2 [c1, One bis, , 0, tester, TRUE, t, t]"), backend.writes);
+    }
+
+    @Test
+    void updateOfARowThatNeverAppearsIsDroppedEventually() {
+        RecordingBackend backend = new RecordingBackend();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.loadCustomers(List.<List<Object>>of(List.of("c1", "One", "", "0", "x", "TRUE", "t", "t")));
+        PersistenceSubscriber subscriber = subscriber(store, backend);
+
+        store.putCustomer(customer("c1", "One bis", true));
+        for (int i = 0; i < 10; i++) subscriber.flush();
+        backend.rows.put("c1", 2);
+        subscriber.flush();
+        assertEquals(List.of(), backend.writes);
+    }
+
+    @Test
+    void orderItemsAreWrittenBeforeTheirOrder() {
+        RecordingBackend backend = new RecordingBackend();
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        PersistenceSubscriber subscriber = subscriber(store, backend);
+
+        store.commitOrder(new OrderDto("o1", "m1", "Manager", "2026-03-01", "SENT", true, "", 1,
+                        "2026-03-01T09:00:00Z", null),
+                List.of(new OrderItemDto("i1", "o1", "Customer", null, null, "2026-03-01T09:00:00Z", null)));
+        subscriber.flush();
+
+        assertEquals(List.of(
+                "append Order_Items [i1, o1, Customer, , , 2026-03-01T09:00:00Z, ]",
+                "append Orders [o1, m1, Manager, 2026-03-01, SENT, TRUE, , 1, 2026-03-01T09:00:00Z]"),
+                backend.writes);
+    }
+
+    private static PersistenceSubscriber subscriber(InMemoryStore store, PersistenceBackend backend) {
+        PersistenceSubscriber subscriber = new PersistenceSubscriber(store, new ObjectMapper());
+        ReflectionTestUtils.setField(subscriber, "persistence", backend);
+        subscriber.init();
+        return subscriber;
+    }
+
+    private static CustomerDto customer(String id, String name, boolean active) {
+        return new CustomerDto(id, name, null, 0, "tester", active, "t", "t", null);
+    }
+
+    /** Records each write as a string; ids are resolved to row indexes through {@code rows}. */
+    private static class RecordingBackend implements PersistenceBackend {
+        final List<String> writes = new ArrayList<>();
+        final Map<String, Integer> rows = new HashMap<>();
+        final Set<String> pendingAppends = new HashSet<>();
+        int lookups;
+
+        @Override
+        public void loadAllTabs() {}
+
+        @Override
+        public void appendRow(String tab, List<Object> row) {
+            writes.add("append " + tab + " " + row);
+        }
+
+        @Override
+        public void updateRow(String tab, int rowIndex, List<Object> row) {
+            writes.add("update " + tab + " " + rowIndex + " " + row);
+        }
+
+        @Override
+        public int findRowIndex(String tab, String id) {
+            return findRowIndexes(tab, List.of(id)).getOrDefault(id, -1);
+        }
+
+        @Override
+        public Map<String, Integer> findRowIndexes(String tab, Collection<String> ids) {
+            lookups++;
+            Map<String, Integer> found = new HashMap<>();
+            for (String id : ids) if (rows.containsKey(id)) found.put(id, rows.get(id));
+            return found;
+        }
+
+        @Override
+        public List<List<Object>> readTab(String tab) {
+            return List.of();
+        }
+
+        @Override
+        public List<String> listTabs() {
+            return TAB_NAMES;
+        }
+
+        @Override
+        public void moveRows(List<RowMove> moves) {
+            moves.forEach(move -> writes.add("move " + move.fromTab() + " " + move.toTab() + " " + move.ids()));
+        }
+
+        @Override
+        public boolean hasPendingAppend(String tab, String id) {
+            return pendingAppends.contains(tab + '\n' + id);
+        }
+
+        @Override
+        public boolean flushPendingWrites() {
+            return true;
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+    }
+}
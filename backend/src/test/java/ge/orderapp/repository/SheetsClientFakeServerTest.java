@@ -0,0 +1,165 @@
+package ge.orderapp.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.services.sheets.v4.Sheets;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.config.GoogleSheetsConfig;
+import ge.orderapp.dto.response.CustomerDto;
+import ge.orderapp.scheduling.SheetsRefreshScheduler;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SheetsClientFakeServerTest {
+
+    @Test
+    void loadsTabsAndBatchesBurstOfAppendsIntoOneCall() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start()) {
+            fake.seed("Customers", 3, i -> List.of("c" + i, "Customer " + i, "40447698" + i, i, "rsge_sync", "TRUE", "t0", "t0"));
+            InMemoryStore store = new InMemoryStore(new ObjectMapper());
+            SheetsClient client = client(fake, store);
+            // A long coalescing window keeps the background flusher out of the way of the explicit flush below.
+            ReflectionTestUtils.setField(client, "flushCoalesceMs", 2_000L);
+            client.init();
+            try {
+                assertTrue(store.isReady());
+                assertEquals(2, store.getCustomer("c2").frequencyScore());
+                assertEquals(1, fake.calls("batchGet"));
+
+                for (int i = 0; i < 25; i++) {
+                    client.appendRow("Order_Items", List.of("i" + i, "o1", "Customer", "c1", "", "t1", ""));
+                }
+                assertTrue(client.flushPendingWrites());
+
+                assertEquals(1, fake.calls("append"));
+                assertEquals(25, fake.rows("Order_Items").size());
+                assertEquals(3, client.findRowIndex("Customers", "c2"));
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void throttledFlushIsRequeuedAndRetried() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start()) {
+            SheetsClient client = client(fake, new InMemoryStore(new ObjectMapper()));
+            client.loadAllTabs();
+
+            client.appendRow("Orders", List.of("o1", "m1", "Manager", "2026-03-01", "SENT", "TRUE", "", 1, "t1"));
+            fake.failNext(1);
+            assertFalse(client.flushPendingWrites());
+            assertEquals(0, fake.rows("Orders").size());
+            assertTrue(client.hasPendingAppend("Orders", "o1"));
+
+            assertTrue(client.flushPendingWrites());
+            assertEquals(List.of("o1"), fake.rows("Orders").stream().map(r -> r.get(0)).toList());
+            assertFalse(client.hasPendingAppend("Orders", "o1"));
+        }
+    }
+
+    @Test
+    void storeChangeMadeJustBeforeARefreshIsWrittenAndKept() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start()) {
+            fake.seed("Customers", 2, i -> List.of("c" + i, "Customer " + i, "tin" + i, 0, "u1", "TRUE", "t0", "t0"));
+            InMemoryStore store = new InMemoryStore(new ObjectMapper());
+            SheetsClient client = client(fake, store);
+            client.loadAllTabs();
+            PersistenceSubscriber subscriber = new PersistenceSubscriber(store, new ObjectMapper());
+            ReflectionTestUtils.setField(subscriber, "persistence", client);
+            subscriber.init();
+            SheetsRefreshScheduler refresher = new SheetsRefreshScheduler(subscriber);
+            ReflectionTestUtils.setField(refresher, "sheets", client);
+
+            // Still in the subscriber's per-row map when the refresh starts
+            store.putCustomer(new CustomerDto("c9", "Synced", "tin9", 0, "rsge_sync", true, "t1", "t1", null));
+            refresher.refresh();
+
+            assertEquals(List.of("c0", "c1", "c9"), fake.rows("Customers").stream().map(r -> r.get(0)).toList());
+            assertEquals("Synced", store.getCustomer("c9").name());
+        }
+    }
+
+    @Test
+    void healthFollowsRecentCallsAndOnlyProbesWhenStale() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start()) {
+            SheetsClient client = client(fake, new InMemoryStore(new ObjectMapper()));
+            ReflectionTestUtils.setField(client, "healthMaxAgeSeconds", 60L);
+            client.loadAllTabs();
+
+            for (int i = 0; i < 5; i++) assertTrue(client.isHealthy());
+            assertEquals(0, fake.calls("get"));
+
+            ReflectionTestUtils.setField(client, "healthMaxAgeSeconds", 0L);
+            assertTrue(client.isHealthy());
+            assertEquals(1, fake.calls("get"));
+        }
+    }
+
+    @Test
+    void rowUpdatesGoOutAsOneBatchAndLandOnTheFoundRows() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start()) {
+            fake.seed("Customers", 5, i -> List.of("c" + i, "Customer " + i, "tin" + i, 0, "u1", "TRUE", "t0", "t0"));
+            SheetsClient client = client(fake, new InMemoryStore(new ObjectMapper()));
+
+            Map<String, Integer> rows = client.findRowIndexes("Customers", List.of("c1", "c3", "missing"));
+            assertEquals(Map.of("c1", 2, "c3", 4), rows);
+            for (Map.Entry<String, Integer> row : rows.entrySet()) {
+                client.updateRow("Customers", row.getValue(), List.of(row.getKey(), "Renamed", "tin", 9, "u1", "TRUE", "t0", "t1"));
+            }
+            assertTrue(client.flushPendingWrites());
+
+            assertEquals(1, fake.calls("values.get"));
+            assertEquals(1, fake.calls("batchUpdate"));
+            List<List<Object>> customers = fake.rows("Customers");
+            assertEquals(List.of("c0", "c1", "c2", "c3", "c4"), customers.stream().map(r -> r.get(0)).toList());
+            assertEquals("Renamed", customers.get(1).get(1));
+            assertEquals("Renamed", customers.get(3).get(1));
+            assertEquals("Customer 2", customers.get(2).get(1));
+        }
+    }
+
+    @Test
+    @Disabled("Manual benchmark. Run explicitly to measure refresh and flush cost against the fake server.")
+    void refreshAndFlushBenchmark() throws Exception {
+        try (FakeSheetsServer fake = FakeSheetsServer.start().withLatency(80)) {
+            fake.seed("Customers", 5_000, i -> List.of("c" + i, "Customer " + i, String.valueOf(400_000_000 + i), i % 50, "rsge_sync", "TRUE", "t0", "t0"));
+            fake.seed("Order_Items", 200_000, i -> List.of("i" + i, "o" + (i / 5), "Customer " + (i % 5_000), "c" + (i % 5_000), "", "2026-01-01T10:00:00Z", ""));
+            SheetsClient client = client(fake, new InMemoryStore(new ObjectMapper()));
+
+            long start = System.nanoTime();
+            client.loadAllTabs();
+            long loadMs = (System.nanoTime() - start) / 1_000_000;
+
+            for (int i = 0; i < 1_000; i++) {
+                client.appendRow(i % 2 == 0 ? "Orders" : "Order_Items", List.of("bench-" + i, "o", "x", "c1", "", "t", ""));
+            }
+            start = System.nanoTime();
+            client.flushPendingWrites();
+            long flushMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("refresh=%dms flush(1000 rows)=%dms appendCalls=%d%n", loadMs, flushMs, fake.calls("append"));
+        }
+    }
+
+    private SheetsClient client(FakeSheetsServer fake, InMemoryStore store) throws Exception {
+        GoogleSheetsConfig config = new GoogleSheetsConfig();
+        ReflectionTestUtils.setField(config, "credentialsPath", "");
+        ReflectionTestUtils.setField(config, "rootUrl", fake.rootUrl());
+        Sheets sheets = config.sheetsService();
+
+        SheetsClient client = new SheetsClient(sheets, store);
+        ReflectionTestUtils.setField(client, "spreadsheetId", "fake-spreadsheet");
+        ReflectionTestUtils.setField(client, "flushCoalesceMs", 50L);
+        ReflectionTestUtils.setField(client, "flushMaxBatch", 200);
+        ReflectionTestUtils.setField(client, "flushRetrySeconds", 1L);
+        return client;
+    }
+}
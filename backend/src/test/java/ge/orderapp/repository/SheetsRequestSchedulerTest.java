@@ -0,0 +1,98 @@
+package ge.orderapp.repository;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import ge.orderapp.repository.SheetsRequestScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetsRequestSchedulerTest {
+
+    @Test
+    void waitingWriteGoesBeforeAnEarlierHealthProbe() throws Exception {
+        // One token, refilled once a second
+        SheetsRequestScheduler scheduler = new SheetsRequestScheduler(60, 1, 0, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler.bindTo(registry);
+        scheduler.call(Priority.REFRESH, () -> "drains the bucket");
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread health = Thread.ofVirtual().start(() -> call(scheduler, Priority.HEALTH, order));
+        awaitWaiting(registry, 1);
+        Thread write = Thread.ofVirtual().start(() -> call(scheduler, Priority.WRITE, order));
+        awaitWaiting(registry, 2);
+        health.join(5000);
+        write.join(5000);
+
+        assertEquals(List.of("WRITE", "HEALTH"), order);
+        assertEquals(1.0, registry.get("app.sheets.requests").tag("priority", "write").tag("outcome", "ok").counter().count());
+        assertTrue(registry.get("app.sheets.quota.wait").tag("priority", "health").timer().totalTime(
+                TimeUnit.MILLISECONDS) >= 1000);
+    }
+
+    @Test
+    void throttledCallPausesEveryCaller() throws Exception {
+        SheetsRequestScheduler scheduler = new SheetsRequestScheduler(0, 1, 300, 1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler.bindTo(registry);
+
+        assertThrows(HttpResponseException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new HttpResponseException.Builder(429, "Too Many Requests", new HttpHeaders()).build();
+        }));
+        assertNull(scheduler.tryCall(Priority.HEALTH, 50, () -> "probe"));
+
+        long start = System.nanoTime();
+        assertEquals("ok", scheduler.call(Priority.WRITE, () -> "ok"));
+        assertTrue(System.nanoTime() - start >= 150_000_000L, "the write waited out the backoff");
+        assertEquals(1.0, registry.get("app.sheets.requests").tag("priority", "write").tag("outcome", "throttled").counter().count());
+    }
+
+    @Test
+    void onlyTransportErrorsServerErrorsAndAuthFailuresCountAsUnreachable() {
+        SheetsRequestScheduler scheduler = SheetsRequestScheduler.unlimited();
+
+        assertThrows(HttpResponseException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new HttpResponseException.Builder(400, "Unable to parse range", new HttpHeaders()).build();
+        }));
+        assertTrue(scheduler.lastOutcome().ok());
+        assertEquals("HTTP 400", scheduler.lastOutcome().error());
+
+        assertThrows(HttpResponseException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new HttpResponseException.Builder(403, "Forbidden", new HttpHeaders()).build();
+        }));
+        assertFalse(scheduler.lastOutcome().ok());
+
+        assertThrows(HttpResponseException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new HttpResponseException.Builder(503, "Unavailable", new HttpHeaders()).build();
+        }));
+        assertFalse(scheduler.lastOutcome().ok());
+
+        assertThrows(IOException.class, () -> scheduler.call(Priority.WRITE, () -> {
+            throw new IOException("Connection reset");
+        }));
+        assertFalse(scheduler.lastOutcome().ok());
+    }
+
+    private static void call(SheetsRequestScheduler scheduler, Priority priority, List<String> order) {
+        try {
+            scheduler.call(priority, () -> order.add(priority.name()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitWaiting(SimpleMeterRegistry registry, int waiting) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get("app.sheets.quota.waiting").gauge().value() < waiting) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("callers never queued");
+            Thread.sleep(5);
+        }
+    }
+}
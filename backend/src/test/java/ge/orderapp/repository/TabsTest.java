@@ -0,0 +1,76 @@
+package ge.orderapp.repository;
+
+import ge.orderapp.dto.response.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabsTest {
+
+    @Test
+    void everySchemaRoundTrips() {
+        CustomerDto customer = new CustomerDto("c1", "შპს თასთი", "404476988", 15, "rsge_sync", true,
+                "2026-03-01T09:00:00Z", "2026-03-02T09:00:00Z", null);
+        assertEquals(customer, roundTrip(Tabs.CUSTOMERS, customer));
+
+        Tabs.UserRow user = new Tabs.UserRow(
+                new UserDto("u1", "admin", "ადმინი", "ADMIN", false, "2026-03-01T09:00:00Z"), "$2a$10$hash");
+        assertEquals(user, roundTrip(Tabs.USERS, user));
+
+        OrderDto order = new OrderDto("o1", "u2", "გიორგი", "2026-03-01", "SENT", true,
+                "2026-03-01T09:00:05Z", 3, "2026-03-01T09:00:00Z", null);
+        assertEquals(order, roundTrip(Tabs.ORDERS, order));
+
+        OrderItemDto item = new OrderItemDto("i1", "o1", "Customer", "c1", "two boxes", "2026-03-01T09:00:00Z", "ვაკე");
+        assertEquals(item, roundTrip(Tabs.ORDER_ITEMS, item));
+        OrderItemDto noBoard = new OrderItemDto("i2", "o1", "Customer", "c1", "", "2026-03-01T09:00:00Z", null);
+        assertEquals(noBoard, roundTrip(Tabs.ORDER_ITEMS, noBoard));
+
+        Tabs.DraftRow draft = new Tabs.DraftRow("d1", "u2", "monday", "[{\"customerName\":\"A\"}]",
+                "2026-03-01T09:00:00Z", "2026-03-02T09:00:00Z");
+        assertEquals(draft, roundTrip(Tabs.DRAFTS, draft));
+
+        MyCustomerDto myCustomer = new MyCustomerDto("u2", "შპს ბახუსი", "c2", "2026-03-01T09:00:00Z");
+        assertEquals(myCustomer, roundTrip(Tabs.MY_CUSTOMERS, myCustomer));
+
+        SyncStateDto sync = new SyncStateDto("s1", "DAILY", "2026-03-01", "2026-03-02", "SUCCESS", 40, 2, "",
+                "2026-03-02T01:00:00Z", "2026-03-02T01:00:09Z");
+        assertEquals(sync, roundTrip(Tabs.SYNC_STATE, sync));
+
+        Tabs.BoardRow board = new Tabs.BoardRow("c1", "საბურთალო", "2026-03-01T09:00:00Z", "u1");
+        assertEquals(board, roundTrip(Tabs.CUSTOMER_BOARDS, board));
+    }
+
+    @Test
+    void decodesUnformattedCellsAndShortRows() {
+        CustomerDto c = Tabs.CUSTOMERS.decode(List.of("c1", "  Name ", new BigDecimal("404476988"),
+                new BigDecimal("12.0"), "x", Boolean.TRUE));
+
+        assertEquals("Name", c.name());
+        assertEquals("404476988", c.tin());
+        assertEquals(12, c.frequencyScore());
+        assertTrue(c.active());
+        assertEquals("", c.createdAt());
+        assertEquals("", c.updatedAt());
+        assertEquals(7, Tabs.SYNC_STATE.decode(List.of("s1", "DAILY", "", "", "SUCCESS", "7.0")).customersFound());
+        assertNull(Tabs.ORDERS.decode(List.of()));
+    }
+
+    @Test
+    void rangesCoverOnlyTheDeclaredColumns() {
+        assertEquals("Customers!A:H", Tabs.CUSTOMERS.range());
+        assertEquals("Orders!A:I", Tabs.ORDERS.range());
+        assertEquals("Sync_State!A:J", Tabs.SYNC_STATE.range());
+        assertEquals("AA", TabSchema.columnLetter(26));
+        for (String tab : PersistenceBackend.TAB_NAMES) {
+            assertNotNull(Tabs.forName(tab), tab);
+        }
+    }
+
+    private static <T> T roundTrip(TabSchema<T> schema, T entity) {
+        return schema.decode(schema.encode(entity));
+    }
+}
@@ -0,0 +1,249 @@
+package ge.orderapp.scheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.cache.OrderArchive;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.OrderItemDto;
+import ge.orderapp.exception.ConflictException;
+import ge.orderapp.exception.NotFoundException;
+import ge.orderapp.repository.LocalFileBackend;
+import ge.orderapp.repository.PersistenceBackend;
+import ge.orderapp.repository.PersistenceSubscriber;
+import ge.orderapp.repository.Tabs;
+import ge.orderapp.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiverTest {
+
+    private static final String ZONE = "Asia/Tbilisi";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void closedMonthsMoveToShardsAndStayReadable() throws Exception {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        LocalFileBackend backend = openBackend(store);
+        PersistenceSubscriber subscriber = new PersistenceSubscriber(store, new ObjectMapper());
+        ReflectionTestUtils.setField(subscriber, "persistence", backend);
+        subscriber.init();
+
+        String today = LocalDate.now(ZoneId.of(ZONE)).toString();
+        commit(store, "old", "2024-02-10", "2024-02-10T08:00:00Z");
+        commit(store, "new", today, Instant.now().toString());
+        subscriber.flush();
+
+        OrderArchive archive = new OrderArchive(store);
+        ReflectionTestUtils.setField(archive, "persistence", backend);
+        ReflectionTestUtils.setField(archive, "hotMonths", 3);
+        ReflectionTestUtils.setField(archive, "coldDir", dataDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(archive, "appTimeZone", ZONE);
+        OrderArchiver archiver = new OrderArchiver(store, archive, subscriber);
+        ReflectionTestUtils.setField(archiver, "persistence", backend);
+
+        archiver.archiveClosedMonths();
+
+        assertNull(store.getOrder("old"));
+        assertNull(store.getOrderItem("old-i"));
+        assertNotNull(store.getOrder("new"));
+        assertTrue(Files.exists(dataDir.resolve("Orders_2024_02.log")));
+        assertEquals(-1, backend.findRowIndex("Orders", "old"));
+        assertEquals(1, backend.findRowIndex("Orders", "new"));
+        assertEquals(1, backend.findRowIndex("Orders_2024_02", "old"));
+
+        OrderService service = new OrderService(store, null);
+        ReflectionTestUtils.setField(service, "archive", archive);
+        ReflectionTestUtils.setField(service, "appTimeZone", ZONE);
+
+        List<OrderDto> listed = service.getOrders(null, "2024-01-01", today, null, 0, 10);
+        assertEquals(List.of("new", "old"), listed.stream().map(OrderDto::orderId).toList());
+        // Without a lower bound the listing still covers the full history
+        assertEquals(List.of("new", "old"), service.getOrders(null, null, null, null, 0, 10).stream()
+                .map(OrderDto::orderId).toList());
+        assertEquals(List.of("new"), service.getOrders(null, null, null, null, 0, 1).stream()
+                .map(OrderDto::orderId).toList());
+        assertEquals(List.of("old"), service.getOrders(null, null, "2024-12-31", null, 0, 10).stream()
+                .map(OrderDto::orderId).toList());
+        assertTrue(service.exportCsv("2024-02-01", "2024-02-29", null).contains("old,Manager,10.02.2024"));
+        assertTrue(service.exportCsv(null, null, null).contains("old,Manager,10.02.2024"));
+        // An old lower bound only reads months that were archived
+        service.getOrders(null, "2015-01-01", today, null, 0, 10);
+        try (var segments = Files.list(dataDir.resolve("cold"))) {
+            assertEquals(List.of("orders-2024-02.seg"), segments.map(p -> p.getFileName().toString()).toList());
+        }
+        assertTrue(Files.exists(dataDir.resolve("cold").resolve("orders-2024-02.seg")));
+        assertThrows(ConflictException.class, () -> service.updateOrderItemBoard("old", "old-i", "B2"));
+
+        // By id, archived orders are found even before any report has copied their month locally
+        OrderArchive fresh = new OrderArchive(store);
+        ReflectionTestUtils.setField(fresh, "persistence", backend);
+        ReflectionTestUtils.setField(fresh, "hotMonths", 3);
+        ReflectionTestUtils.setField(fresh, "coldDir", dataDir.resolve("fresh-cold").toString());
+        ReflectionTestUtils.setField(fresh, "appTimeZone", ZONE);
+        ReflectionTestUtils.setField(service, "archive", fresh);
+        assertEquals("old-i", service.getOrderById("old").items().get(0).itemId());
+        assertThrows(NotFoundException.class, () -> service.getOrderById("missing"));
+        backend.shutdown();
+
+        // The deletes replay: a restart loads only the hot month
+        InMemoryStore reloaded = new InMemoryStore(new ObjectMapper());
+        LocalFileBackend reopened = openBackend(reloaded);
+        assertNull(reloaded.getOrder("old"));
+        assertNotNull(reloaded.getOrder("new"));
+        assertEquals(1, reloaded.getOrderItems("new").size());
+        reopened.shutdown();
+    }
+
+    @Test
+    void aMoveThatFailsPartWayIsCompletedByTheNextRunWithoutDuplicates() throws Exception {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        // Moves that fail after copying this many tabs, one per run, before the real move runs
+        Deque<Integer> failures = new ArrayDeque<>(List.of(1, 2));
+        LocalFileBackend backend = new LocalFileBackend(store, new ObjectMapper()) {
+            @Override
+            public void moveRows(List<RowMove> moves) {
+                Integer copiedTabs = failures.poll();
+                if (copiedTabs == null) {
+                    super.moveRows(moves);
+                    return;
+                }
+                for (RowMove move : moves.subList(0, copiedTabs)) {
+                    Set<String> present = new HashSet<>();
+                    readTab(move.toTab()).forEach(row -> present.add(row.get(0).toString()));
+                    for (List<Object> row : readTab(move.fromTab())) {
+                        String id = row.get(0).toString();
+                        if (move.ids().contains(id) && present.add(id)) appendRow(move.toTab(), row);
+                    }
+                }
+                throw new IllegalStateException("Sheets request failed");
+            }
+        };
+        ReflectionTestUtils.setField(backend, "dataDir", dataDir.toString());
+        ReflectionTestUtils.setField(backend, "compactMinRecords", 1000);
+        backend.init();
+        PersistenceSubscriber subscriber = new PersistenceSubscriber(store, new ObjectMapper());
+        ReflectionTestUtils.setField(subscriber, "persistence", backend);
+        subscriber.init();
+
+        commit(store, "old", "2024-02-10", "2024-02-10T08:00:00Z");
+        subscriber.flush();
+        OrderArchive archive = new OrderArchive(store);
+        ReflectionTestUtils.setField(archive, "persistence", backend);
+        ReflectionTestUtils.setField(archive, "hotMonths", 3);
+        ReflectionTestUtils.setField(archive, "coldDir", dataDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(archive, "appTimeZone", ZONE);
+        OrderArchiver archiver = new OrderArchiver(store, archive, subscriber);
+        ReflectionTestUtils.setField(archiver, "persistence", backend);
+
+        // The Orders copy fails: items are in their shard, nothing is deleted and the store keeps the month
+        archiver.archiveClosedMonths();
+        assertNotNull(store.getOrder("old"));
+        assertEquals(1, backend.findRowIndex("Order_Items", "old-i"));
+        assertEquals(1, rowsWithId(backend, "Order_Items_2024_02", "old-i"));
+        assertEquals(0, rowsWithId(backend, "Orders_2024_02", "old"));
+
+        // The deletes fail: both shards hold the month, the hot tabs still do too
+        archiver.archiveClosedMonths();
+        assertNotNull(store.getOrder("old"));
+        assertEquals(1, backend.findRowIndex("Orders", "old"));
+        assertEquals(1, rowsWithId(backend, "Order_Items_2024_02", "old-i"));
+        assertEquals(1, rowsWithId(backend, "Orders_2024_02", "old"));
+
+        // A duplicate left by a move from before copies skipped existing ids
+        backend.appendRow("Orders_2024_02", backend.readTab("Orders_2024_02").get(0));
+
+        archiver.archiveClosedMonths();
+        assertNull(store.getOrder("old"));
+        assertEquals(-1, backend.findRowIndex("Orders", "old"));
+        assertEquals(-1, backend.findRowIndex("Order_Items", "old-i"));
+        assertEquals(1, rowsWithId(backend, "Order_Items_2024_02", "old-i"));
+        assertEquals(2, rowsWithId(backend, "Orders_2024_02", "old"));
+
+        // The segment keeps one row per id
+        List<OrderDto> archived = archive.getOrdersWithItems("2024-02-01", "2024-02-29", null);
+        assertEquals(List.of("old"), archived.stream().map(OrderDto::orderId).toList());
+        assertEquals(List.of("old-i"), archived.get(0).items().stream().map(OrderItemDto::itemId).toList());
+        backend.shutdown();
+    }
+
+    @Test
+    void aSegmentBuiltWhileItsMonthIsInvalidatedIsNotPublished() throws Exception {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        OrderArchive archive = new OrderArchive(store);
+        // Runs once, in the middle of the next build's shard reads
+        Runnable[] duringBuild = new Runnable[1];
+        LocalFileBackend backend = new LocalFileBackend(store, new ObjectMapper()) {
+            @Override
+            public List<List<Object>> readTab(String tab) {
+                List<List<Object>> rows = super.readTab(tab);
+                Runnable hook = duringBuild[0];
+                duringBuild[0] = null;
+                if (hook != null) hook.run();
+                return rows;
+            }
+        };
+        ReflectionTestUtils.setField(backend, "dataDir", dataDir.toString());
+        ReflectionTestUtils.setField(backend, "compactMinRecords", 1000);
+        backend.init();
+        ReflectionTestUtils.setField(archive, "persistence", backend);
+        ReflectionTestUtils.setField(archive, "hotMonths", 3);
+        ReflectionTestUtils.setField(archive, "coldDir", dataDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(archive, "appTimeZone", ZONE);
+
+        commit(store, "old", "2024-02-10", "2024-02-10T08:00:00Z");
+        commit(store, "late", "2024-02-20", "2024-02-20T08:00:00Z");
+        backend.appendRow("Orders_2024_02", Tabs.ORDERS.encode(store.getOrder("old")));
+        // The archiver moves another order into the month after the build read its Orders shard
+        duringBuild[0] = () -> {
+            backend.appendRow("Orders_2024_02", Tabs.ORDERS.encode(store.getOrder("late")));
+            archive.invalidate(YearMonth.of(2024, 2));
+        };
+
+        List<OrderDto> archived = archive.getOrders(null, "2024-02-01", "2024-02-29", null);
+        assertEquals(List.of("late", "old"), archived.stream().map(OrderDto::orderId).toList());
+        // The file left behind is the rebuilt one
+        OrderArchive restarted = new OrderArchive(store);
+        ReflectionTestUtils.setField(restarted, "hotMonths", 3);
+        ReflectionTestUtils.setField(restarted, "coldDir", dataDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(restarted, "appTimeZone", ZONE);
+        ReflectionTestUtils.setField(restarted, "archived", new TreeSet<>(Set.of(YearMonth.of(2024, 2))));
+        assertEquals(2, restarted.getOrders(null, "2024-02-01", "2024-02-29", null).size());
+        backend.shutdown();
+    }
+
+    private static long rowsWithId(PersistenceBackend backend, String tab, String id) {
+        return backend.readTab(tab).stream().filter(row -> id.equals(row.get(0).toString())).count();
+    }
+
+    private static void commit(InMemoryStore store, String orderId, String date, String createdAt) {
+        OrderItemDto item = new OrderItemDto(orderId + "-i", orderId, "Customer", "c1", "", createdAt, "B1");
+        store.commitOrder(new OrderDto(orderId, "m1", "Manager", date, "SENT", false, "", 1, createdAt, null),
+                List.of(item));
+    }
+
+    private LocalFileBackend openBackend(InMemoryStore store) {
+        LocalFileBackend backend = new LocalFileBackend(store, new ObjectMapper());
+        ReflectionTestUtils.setField(backend, "dataDir", dataDir.toString());
+        ReflectionTestUtils.setField(backend, "compactMinRecords", 1000);
+        backend.init();
+        return backend;
+    }
+}
@@ -0,0 +1,69 @@
+package ge.orderapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+    private final LoginRateLimiter limiter = new LoginRateLimiter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(limiter, "maxAttempts", 3);
+        ReflectionTestUtils.setField(limiter, "maxAttemptsPerIp", 10);
+        ReflectionTestUtils.setField(limiter, "windowSeconds", 300L);
+        ReflectionTestUtils.setField(limiter, "clock", (LongSupplier) now::get);
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+    }
+
+    @Test
+    void failuresSlideOutOfTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("10.0.0.1", "nino");
+            now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        }
+        assertFalse(limiter.isAllowed("10.0.0.1", "NINO"));
+        assertTrue(limiter.isAllowed("10.0.0.1", "giorgi"));
+        assertTrue(limiter.isAllowed("10.0.0.2", "nino"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        assertTrue(limiter.isAllowed("10.0.0.1", "nino"));
+    }
+
+    @Test
+    void successfulLoginTakesItsFailuresBackOutOfTheSharedAddress() {
+        // An office behind one NAT address: each user mistypes twice, then gets in
+        for (int user = 0; user < 8; user++) {
+            limiter.recordFailure("10.0.0.1", "user" + user);
+            now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+            limiter.recordFailure("10.0.0.1", "user" + user);
+            assertTrue(limiter.isAllowed("10.0.0.1", "user" + user));
+            limiter.recordSuccess("10.0.0.1", "user" + user);
+        }
+        assertTrue(limiter.isAllowed("10.0.0.1", "someone-new"));
+
+        // Failures of other usernames stay counted against the address
+        for (int i = 0; i < 10; i++) limiter.recordFailure("10.0.0.1", "guess" + i);
+        limiter.recordSuccess("10.0.0.1", "user0");
+        assertFalse(limiter.isAllowed("10.0.0.1", "someone-new"));
+    }
+
+    @Test
+    void oneAddressTryingManyUsernamesIsBlockedAndScansDoNotAffectOthers() {
+        for (int i = 0; i < 10; i++) limiter.recordFailure("10.0.0.1", "user" + i);
+        assertFalse(limiter.isAllowed("10.0.0.1", "someone-new"));
+
+        for (int i = 0; i < 2_000; i++) limiter.recordFailure("172.16." + (i >> 8) + "." + (i & 255), "admin");
+        assertTrue(limiter.isAllowed("10.0.0.2", "admin"));
+        limiter.evictExpired();
+    }
+}
@@ -0,0 +1,71 @@
+package ge.orderapp.security;
+
+import ge.orderapp.exception.RateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordServiceTest {
+
+    @Test
+    void callBeyondTheQueueIsRejectedInsteadOfQueued() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordService passwords = start(registry, 30_000L);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ExecutorService pool = blockWorker(passwords, release);
+            pool.submit(() -> {}); // fills the single queue slot
+
+            assertThrows(RateLimitException.class, () -> passwords.matches("secret", "$2a$10$unused"));
+            assertEquals(1.0, registry.get("app.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            passwords.shutdown();
+        }
+    }
+
+    @Test
+    void callTimingOutInTheQueueCountsAsRejected() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordService passwords = start(registry, 50L);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            blockWorker(passwords, release);
+
+            assertThrows(RateLimitException.class, () -> passwords.matches("secret", "$2a$10$unused"));
+            assertEquals(1.0, registry.get("app.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            passwords.shutdown();
+        }
+    }
+
+    private static PasswordService start(SimpleMeterRegistry registry, long timeoutMs) {
+        PasswordService passwords = new PasswordService();
+        ReflectionTestUtils.setField(passwords, "threads", 1);
+        ReflectionTestUtils.setField(passwords, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwords, "timeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(passwords, "meterRegistry", registry);
+        passwords.init();
+        return passwords;
+    }
+
+    /** Occupies the only worker until {@code release} opens; returns the pool. */
+    private static ExecutorService blockWorker(PasswordService passwords, CountDownLatch release)
+            throws InterruptedException {
+        ExecutorService pool = (ExecutorService) ReflectionTestUtils.getField(passwords, "executor");
+        CountDownLatch started = new CountDownLatch(1);
+        pool.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+        return pool;
+    }
+}
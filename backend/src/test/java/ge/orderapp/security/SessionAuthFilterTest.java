@@ -0,0 +1,18 @@
+package ge.orderapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionAuthFilterTest {
+
+    @Test
+    void sessionCookieIsFoundAmongOthers() {
+        assertEquals("abc", SessionAuthFilter.sessionIdFromCookieHeader("theme=dark; SESSION_ID=abc; x=1"));
+        assertEquals("abc", SessionAuthFilter.sessionIdFromCookieHeader("SESSION_ID=\"abc\""));
+        assertEquals("z", SessionAuthFilter.sessionIdFromCookieHeader("SESSION_IDX=1;SESSION_ID=z"));
+        assertNull(SessionAuthFilter.sessionIdFromCookieHeader("OLD_SESSION_ID=abc; SESSION_ID="));
+        assertNull(SessionAuthFilter.sessionIdFromCookieHeader("theme=dark"));
+    }
+}
@@ -0,0 +1,140 @@
+package ge.orderapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.dto.response.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionManagerTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final InMemoryStore store = new InMemoryStore(new ObjectMapper());
+    private final SessionManager sessions = new SessionManager(new ObjectMapper(), store);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessions, "idleTimeoutMinutes", 30);
+        ReflectionTestUtils.setField(sessions, "absoluteTimeoutHours", 2);
+        ReflectionTestUtils.setField(sessions, "clock", (LongSupplier) now::get);
+    }
+
+    @Test
+    void idleTimeoutSlidesWithUseButAbsoluteLifetimeDoesNot() {
+        String id = sessions.createSession(user("u1"));
+
+        for (int i = 0; i < 4; i++) {
+            now.addAndGet(29 * MINUTE);
+            assertNotNull(sessions.getSession(id));
+        }
+        now.addAndGet(5 * MINUTE);
+        assertNull(sessions.getSession(id));
+        assertEquals(0, sessions.getActiveSessionCount());
+    }
+
+    @Test
+    void sweepEvictsIdleSessionsAndRevocationOnlyTouchesThatUser() {
+        String a1 = sessions.createSession(user("a"));
+        String a2 = sessions.createSession(user("a"));
+        String b1 = sessions.createSession(user("b"));
+        now.addAndGet(20 * MINUTE);
+        assertNotNull(sessions.getSession(b1));
+        String c1 = sessions.createSession(user("c"));
+
+        now.addAndGet(15 * MINUTE);
+        sessions.evictExpiredSessions();
+        assertNull(sessions.getSession(a1));
+        assertNull(sessions.getSession(a2));
+        assertEquals(2, sessions.getActiveSessionCount());
+
+        sessions.removeAllSessionsForUser("c");
+        assertNull(sessions.getSession(c1));
+        assertNotNull(sessions.getSession(b1));
+    }
+
+    @Test
+    void sessionsSurviveARestartButRevocationsAndExpiriesDoNot(@TempDir Path dir) {
+        ReflectionTestUtils.setField(sessions, "storeDir", dir.toString());
+        sessions.init();
+        String kept = sessions.createSession(user("a"));
+        String revoked = sessions.createSession(user("a"));
+        String idle = sessions.createSession(user("b"));
+        sessions.removeSession(revoked);
+        now.addAndGet(20 * MINUTE);
+        sessions.getSession(kept);
+        sessions.snapshotSessions();
+        String late = sessions.createSession(user("c"));
+        sessions.shutdown();
+
+        now.addAndGet(15 * MINUTE);
+        SessionManager restarted = new SessionManager(new ObjectMapper(), store);
+        ReflectionTestUtils.setField(restarted, "idleTimeoutMinutes", 30);
+        ReflectionTestUtils.setField(restarted, "absoluteTimeoutHours", 2);
+        ReflectionTestUtils.setField(restarted, "clock", (LongSupplier) now::get);
+        ReflectionTestUtils.setField(restarted, "storeDir", dir.toString());
+        restarted.init();
+
+        assertEquals("a", restarted.getSession(kept).userId());
+        assertEquals("c", restarted.getSession(late).userId());
+        assertNull(restarted.getSession(revoked));
+        assertNull(restarted.getSession(idle));
+        restarted.removeAllSessionsForUser("a");
+        assertNull(restarted.getSession(kept));
+        restarted.shutdown();
+    }
+
+    @Test
+    void revocationRacingALoginIsNotUndoneByARestart(@TempDir Path dir) throws Exception {
+        ReflectionTestUtils.setField(sessions, "storeDir", dir.toString());
+        sessions.init();
+        try (ExecutorService logins = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                logins.submit(() -> sessions.createSession(user("a")));
+                if (i % 10 == 0) logins.submit(() -> sessions.removeAllSessionsForUser("a"));
+            }
+        }
+        sessions.removeAllSessionsForUser("a");
+        sessions.shutdown();
+
+        SessionManager restarted = new SessionManager(new ObjectMapper(), store);
+        ReflectionTestUtils.setField(restarted, "idleTimeoutMinutes", 30);
+        ReflectionTestUtils.setField(restarted, "absoluteTimeoutHours", 2);
+        ReflectionTestUtils.setField(restarted, "clock", (LongSupplier) now::get);
+        ReflectionTestUtils.setField(restarted, "storeDir", dir.toString());
+        restarted.init();
+        assertEquals(0, restarted.getActiveSessionCount());
+        restarted.shutdown();
+    }
+
+    @Test
+    void roleChangesAndDeactivationApplyToExistingSessions() {
+        store.putUser(user("u1"), "hash");
+        String id = sessions.createSession(user("u1"));
+        assertEquals("MANAGER", sessions.getSession(id).role());
+
+        store.putUser(new UserDto("u1", "u1", "u1", "ADMIN", true, "now"), null);
+        assertEquals("ADMIN", sessions.getSession(id).role());
+
+        store.putUser(new UserDto("u1", "u1", "u1", "ADMIN", false, "now"), null);
+        assertNull(sessions.getSession(id));
+        assertEquals(0, sessions.getActiveSessionCount());
+    }
+
+    private static UserDto user(String id) {
+        return new UserDto(id, id, id, "MANAGER", true, "now");
+    }
+}
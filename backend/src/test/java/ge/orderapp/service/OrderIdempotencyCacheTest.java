@@ -0,0 +1,107 @@
+package ge.orderapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ge.orderapp.cache.InMemoryStore;
+import ge.orderapp.dto.request.CreateOrderRequest;
+import ge.orderapp.dto.response.CustomerDto;
+import ge.orderapp.dto.response.OrderDto;
+import ge.orderapp.dto.response.UserDto;
+import ge.orderapp.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIdempotencyCacheTest {
+
+    private static final UserDto MANAGER = new UserDto("m1", "manager", "Manager", "MANAGER", true, "t0");
+
+    @Test
+    void resubmittedOrderIsCreatedOnce() {
+        InMemoryStore store = new InMemoryStore(new ObjectMapper());
+        store.putCustomer(new CustomerDto("c1", "Customer", "404476988", 0, "admin", true, "t0", "t0", null));
+        OrderService service = new OrderService(store, null);
+        ReflectionTestUtils.setField(service, "idempotency", cache());
+        ReflectionTestUtils.setField(service, "appTimeZone", "Asia/Tbilisi");
+
+        OrderDto first = service.createOrder(request("first"), MANAGER, "key-1");
+        OrderDto retry = service.createOrder(request("first"), MANAGER, "key-1");
+        OrderDto next = service.createOrder(request("first"), MANAGER, "key-2");
+
+        assertEquals(first.orderId(), retry.orderId());
+        assertNotEquals(first.orderId(), next.orderId());
+        assertEquals(2, store.getOrders(null, null, null, "m1", 0, 10).size());
+        assertEquals(2, store.getCustomer("c1").frequencyScore());
+        assertThrows(ConflictException.class, () -> service.createOrder(request("other"), MANAGER, "key-1"));
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstAttempt() throws Exception {
+        OrderIdempotencyCache cache = cache();
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<OrderDto> first = executor.submit(() -> cache.submit("m1", "k", request("a"), () -> {
+                started.countDown();
+                await(release);
+                return order("o" + created.incrementAndGet());
+            }));
+            started.await();
+            Future<OrderDto> retry = executor.submit(() -> cache.submit("m1", "k", request("a"),
+                    () -> order("o" + created.incrementAndGet())));
+            release.countDown();
+
+            assertEquals("o1", first.get().orderId());
+            assertEquals("o1", retry.get().orderId());
+        }
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void failedAttemptCanBeRetriedAndEntriesAreBounded() {
+        OrderIdempotencyCache cache = cache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+
+        assertThrows(IllegalStateException.class, () -> cache.submit("m1", "k", request("a"), () -> {
+            throw new IllegalStateException("telegram down");
+        }));
+        assertEquals("o1", cache.submit("m1", "k", request("a"), () -> order("o1")).orderId());
+        // Keys are per manager
+        assertEquals("o2", cache.submit("m2", "k", request("a"), () -> order("o2")).orderId());
+        cache.submit("m1", "k3", request("a"), () -> order("o3"));
+        assertEquals(2, cache.size());
+    }
+
+    private static OrderIdempotencyCache cache() {
+        OrderIdempotencyCache cache = new OrderIdempotencyCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        return cache;
+    }
+
+    private static CreateOrderRequest request(String comment) {
+        return new CreateOrderRequest(List.of(
+                new CreateOrderRequest.OrderItemRequest("Customer", "c1", comment, null)), false);
+    }
+
+    private static OrderDto order(String id) {
+        return new OrderDto(id, "m1", "Manager", "2026-10-18", "SENT", false, "", 1, "t0", List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
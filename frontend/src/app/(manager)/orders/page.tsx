@@ -1,6 +1,6 @@
 'use client';
 
-import { useState, useCallback, useEffect } from 'react';
+import { useState, useCallback, useEffect, useRef } from 'react';
 import { toast } from 'sonner';
 import { useQueryClient } from '@tanstack/react-query';
 import { SearchPanel } from '@/components/orders/SearchPanel';
@@ -32,6 +32,13 @@ export default function OrdersPage() {
   const loadDraft = useLoadDraft();
   const queryClient = useQueryClient();
 
+  // One key per selection: resending the same order after a dropped response returns the first one,
+  // while any change to the selection makes it a new order
+  const submitKey = useRef<string | null>(null);
+  useEffect(() => {
+    submitKey.current = null;
+  }, [selectedItems]);
+
   // Load my customer IDs
   useEffect(() => {
     api.get<MyCustomer[]>('/api/v1/customers/my').then((data) => {
@@ -121,7 +128,12 @@ export default function OrdersPage() {
 
   const handleSend = async () => {
     try {
-      const order = await createOrder.mutateAsync({ items: selectedItems, sendTelegram: true });
+      submitKey.current ??= newSubmitKey();
+      const order = await createOrder.mutateAsync({
+        items: selectedItems,
+        sendTelegram: true,
+        idempotencyKey: submitKey.current,
+      });
       if (order && order.telegramSent) {
         toast.success(GEO.orderSent);
       } else {
@@ -302,3 +314,11 @@ export default function OrdersPage() {
     </div>
   );
 }
+
+function newSubmitKey(): string {
+  if (typeof crypto !== 'undefined' && typeof crypto.randomUUID === 'function') {
+    return crypto.randomUUID();
+  }
+  // randomUUID needs a secure context; plain-HTTP dev servers fall back to this
+  return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}${Math.random().toString(36).slice(2)}`;
+}
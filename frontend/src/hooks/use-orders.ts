@@ -28,16 +28,21 @@ export function useOrderDetail(id: string) {
 export function useCreateOrder() {
   const queryClient = useQueryClient();
   return useMutation({
-    mutationFn: (data: { items: SelectedCustomer[]; sendTelegram: boolean }) =>
-      api.post<Order>('/api/v1/orders', {
-        items: data.items.map((i) => ({
-          customerName: i.customerName,
-          customerId: i.customerId,
-          comment: i.comment,
-          board: i.board ?? null,
-        })),
-        sendTelegram: data.sendTelegram,
-      }),
+    // Resending with the same idempotencyKey returns the order already created instead of a duplicate
+    mutationFn: (data: { items: SelectedCustomer[]; sendTelegram: boolean; idempotencyKey: string }) =>
+      api.post<Order>(
+        '/api/v1/orders',
+        {
+          items: data.items.map((i) => ({
+            customerName: i.customerName,
+            customerId: i.customerId,
+            comment: i.comment,
+            board: i.board ?? null,
+          })),
+          sendTelegram: data.sendTelegram,
+        },
+        { 'Idempotency-Key': data.idempotencyKey }
+      ),
     onSuccess: () => {
       queryClient.invalidateQueries({ queryKey: ['orders'] });
     },
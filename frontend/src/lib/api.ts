@@ -10,14 +10,15 @@ class ApiError extends Error {
 async function request<T>(path: string, options?: RequestInit): Promise<T> {
   const url = buildApiUrl(path);
   let res: Response;
+  const { headers, ...rest } = options ?? {};
   try {
     res = await fetch(url, {
       credentials: 'include',
+      ...rest,
       headers: {
         'Content-Type': 'application/json',
-        ...options?.headers,
+        ...headers,
       },
-      ...options,
     });
   } catch {
     throw new ApiError(0, 'Failed to reach API server');
@@ -47,8 +48,8 @@ export function buildApiUrl(path: string): string {
 
 export const api = {
   get: <T>(path: string) => request<T>(path),
-  post: <T>(path: string, body?: unknown) =>
-    request<T>(path, { method: 'POST', body: body ? JSON.stringify(body) : undefined }),
+  post: <T>(path: string, body?: unknown, headers?: Record<string, string>) =>
+    request<T>(path, { method: 'POST', body: body ? JSON.stringify(body) : undefined, headers }),
   put: <T>(path: string, body?: unknown) =>
     request<T>(path, { method: 'PUT', body: body ? JSON.stringify(body) : undefined }),
   delete: <T>(path: string) => request<T>(path, { method: 'DELETE' }),